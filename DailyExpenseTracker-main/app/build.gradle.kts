@@ -32,6 +32,8 @@ android {
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_17
         targetCompatibility = JavaVersion.VERSION_17
+        // java.time (used by PeriodClock in :core) below API 26
+        isCoreLibraryDesugaringEnabled = true
     }
 
     kotlinOptions {
@@ -41,10 +43,21 @@ android {
     buildFeatures {
         viewBinding = true
     }
+
+    testOptions {
+        unitTests {
+            // Robolectric tests inflate the real layouts
+            isIncludeAndroidResources = true
+        }
+    }
 }
 
 
 dependencies {
+    // Models, formatting and period arithmetic, kept free of Android so :benchmark can run them
+    implementation(project(":core"))
+    coreLibraryDesugaring(libs.desugar.jdk.libs)
+
     // Core Android dependencies
     implementation(libs.androidx.core.ktx)
     implementation(libs.androidx.appcompat)
@@ -63,9 +76,11 @@ dependencies {
     // Room Database
     implementation(libs.androidx.room.runtime)
     implementation(libs.androidx.room.ktx)
+    kapt(libs.androidx.room.compiler) // Generates and verifies the DAO queries
 
     // Testing
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.androidx.junit)
     androidTestImplementation(libs.androidx.espresso.core)
 
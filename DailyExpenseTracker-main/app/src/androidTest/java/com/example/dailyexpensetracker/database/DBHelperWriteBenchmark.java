@@ -0,0 +1,110 @@
+package com.example.dailyexpensetracker.database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.dailyexpensetracker.models.Expense;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Date;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Per-write latency of the old open/insert/close path against the shared WAL connection
+ * Room keeps open, whose insert statement is compiled once. Results are written to logcat
+ * under this class name.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DBHelperWriteBenchmark {
+
+    private static final String TAG = "DBHelperWriteBenchmark";
+    private static final String DB_NAME = "write_benchmark.db";
+    private static final int WRITES = 500;
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void perWriteLatency() {
+        long before = timeOpenPerWrite();
+        context.deleteDatabase(DB_NAME);
+        long after = timeSharedConnection();
+
+        Log.i(TAG, String.format(Locale.US,
+                "per write: open/close %.1f us, shared connection %.1f us",
+                before / 1000.0 / WRITES, after / 1000.0 / WRITES));
+    }
+
+    // What addExpense did before: reopen the database, insert through ContentValues, close.
+    // Runs on a plain SQLite file in rollback-journal mode, as the old helper did.
+    private long timeOpenPerWrite() {
+        File file = context.getDatabasePath(DB_NAME);
+        file.getParentFile().mkdirs();
+        SQLiteDatabase setup = SQLiteDatabase.openOrCreateDatabase(file, null);
+        setup.execSQL(DatabaseMigrations.CREATE_TABLE_EXPENSES);
+        setup.close();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(file, null);
+            ContentValues values = new ContentValues();
+            values.put(DBHelper.COLUMN_CATEGORY_ID, 1L);
+            values.put(DBHelper.COLUMN_NOTE, "note " + i);
+            values.put(DBHelper.COLUMN_AMOUNT, i);
+            values.put(DBHelper.COLUMN_DATE, "2024-01-01 00:00:00");
+            values.put(DBHelper.COLUMN_DATE_MILLIS, 0L);
+            db.insert(DBHelper.TABLE_EXPENSES, null, values);
+            db.close();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        assertEquals(WRITES, DatabaseUtils.queryNumEntries(db, DBHelper.TABLE_EXPENSES));
+        db.close();
+        return elapsed;
+    }
+
+    private long timeSharedConnection() {
+        DBHelper helper = new DBHelper(context, DB_NAME);
+        // Open the database and compile the statement outside the timed loop
+        long warmUpId = helper.addExpense(newExpense(0));
+        helper.deleteExpense((int) warmUpId);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            helper.addExpense(newExpense(i));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(WRITES, helper.getExpensesCount());
+        helper.close();
+        return elapsed;
+    }
+
+    private static Expense newExpense(int i) {
+        return new Expense(i, "Food", "note " + i, new Date(0));
+    }
+}
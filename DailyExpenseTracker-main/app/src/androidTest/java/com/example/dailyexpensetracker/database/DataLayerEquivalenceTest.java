@@ -0,0 +1,367 @@
+package com.example.dailyexpensetracker.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseSummary;
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+import com.example.dailyexpensetracker.utils.Money;
+import com.example.dailyexpensetracker.utils.PeriodRanges;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the hand-written SQL the app used before Room (schema v4) and the Room-backed DBHelper
+ * on the same rows and checks they return the same expenses, pages, counts and totals.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DataLayerEquivalenceTest {
+
+    private static final String DB_NAME = "equivalence_test.db";
+    private static final int ROWS = 400;
+    private static final int PAGE_SIZE = 25;
+    private static final String[] CATEGORIES = {"Food", "Transport", "Bills", "Shopping", null};
+    private static final List<String> SUMMARY_CATEGORIES = Arrays.asList("Food", "");
+    // The same categories as Expense.getCategory gives them, null for uncategorised
+    private static final List<String> NULL_SUMMARY_CATEGORIES = Arrays.asList(null, "Food");
+
+    // The expenses table as the old SQLiteOpenHelper created it at version 4
+    private static final String V4_CREATE_TABLE_EXPENSES =
+            "CREATE TABLE expenses(id INTEGER PRIMARY KEY AUTOINCREMENT,category TEXT,note TEXT,"
+                    + "amount REAL NOT NULL,date TEXT,timestamp DATETIME DEFAULT CURRENT_TIMESTAMP,"
+                    + "date_millis INTEGER)";
+
+    // The version 4 rollup, keyed by category name, and how it was filled from expenses
+    private static final String V4_CREATE_ROLLUP =
+            "CREATE TABLE expense_daily_rollup(day INTEGER NOT NULL,category TEXT NOT NULL,"
+                    + "count INTEGER NOT NULL,total REAL NOT NULL,PRIMARY KEY (day, category)) WITHOUT ROWID";
+    private static final String V4_FILL_ROLLUP =
+            "INSERT INTO expense_daily_rollup (day, category, count, total)"
+                    + " SELECT CAST(julianday(date_millis / 1000, 'unixepoch', 'localtime') - 2440587.5 AS INTEGER),"
+                    + " IFNULL(category, ''), COUNT(*), SUM(amount) FROM expenses GROUP BY 1, 2";
+
+    // Rows as the old queries saw them, with the category name on each and the amount in paise
+    private static final String V4_EXPENSES =
+            "(SELECT *, CAST(ROUND(amount * 100) AS INTEGER) AS amount_paise FROM expenses)";
+    private static final String EXPENSES_WITH_NAMES = "(SELECT e.*, c.name AS category FROM expenses e"
+            + " LEFT JOIN categories c ON c.id = e.category_id)";
+    // The version 4 rollup summed rupees as doubles; rounding the sum recovers the paise
+    private static final String V4_ROLLUP_SUM = "ROUND(SUM(total) * 100)";
+    private static final String ROLLUP_SUM = "SUM(total)";
+
+    private Context context;
+    private DBHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (dbHelper != null) dbHelper.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void migratedDatabaseAnswersLikeTheOldQueries() {
+        SupportSQLiteOpenHelper legacy = openV4Database();
+        SupportSQLiteDatabase db = legacy.getWritableDatabase();
+        for (Expense expense : sampleExpenses()) {
+            db.execSQL("INSERT INTO expenses (category, note, amount, date, date_millis) VALUES (?, ?, ?, ?, ?)",
+                    new Object[]{expense.getCategory(), expense.getNote(), expense.getAmountPaise() / 100.0,
+                            ExpenseTimestamps.format(expense.getDate().getTime(), TimeZone.getDefault()),
+                            expense.getDate().getTime()});
+        }
+        db.execSQL(V4_FILL_ROLLUP);
+        Snapshot before = readWithOldQueries(db, V4_EXPENSES, V4_ROLLUP_SUM);
+        legacy.close();
+
+        // Opening through DBHelper runs the migration to Room's schema
+        dbHelper = new DBHelper(context, DB_NAME);
+        Snapshot after = readWithDbHelper(dbHelper);
+
+        assertEquals(ROWS, before.count);
+        before.assertSameAs(after);
+    }
+
+    // The old screens stored Double.parseDouble of what was typed; each must come back as the
+    // exact paise typed, and the totals as their exact sum
+    @Test
+    public void migrationKeepsEveryPaisa() {
+        String[] typed = {"0.01", "0.1", "0.2", "0.29", "1.15", "19.99", "100", "4.35", "1234567.89",
+                "99999999.99", "-12.34"};
+        SupportSQLiteOpenHelper legacy = openV4Database();
+        SupportSQLiteDatabase db = legacy.getWritableDatabase();
+        long dateMillis = PeriodRanges.todayRange()[0];
+        long expectedTotal = 0;
+        for (String amount : typed) {
+            db.execSQL("INSERT INTO expenses (category, note, amount, date, date_millis) VALUES (?, ?, ?, ?, ?)",
+                    new Object[]{"Food", amount, Double.parseDouble(amount),
+                            ExpenseTimestamps.format(dateMillis, TimeZone.getDefault()), dateMillis});
+            expectedTotal += Money.parse(amount);
+        }
+        db.execSQL(V4_FILL_ROLLUP);
+        legacy.close();
+
+        dbHelper = new DBHelper(context, DB_NAME);
+        List<Expense> migrated = dbHelper.getAllExpenses();
+        assertEquals(typed.length, migrated.size());
+        for (Expense expense : migrated) {
+            assertEquals(expense.getNote(), Money.parse(expense.getNote()), expense.getAmountPaise());
+        }
+        assertEquals(expectedTotal, dbHelper.getTotalExpenses());
+        assertEquals(expectedTotal, dbHelper.getTodayTotal());
+        assertEquals(expectedTotal, dbHelper.getSummaryEngine().getTodaySummary().getTotal());
+    }
+
+    @Test
+    public void writesThroughRoomReadLikeTheOldQueries() {
+        dbHelper = new DBHelper(context, DB_NAME);
+        assertEquals(ROWS, dbHelper.addExpenses(sampleExpenses(), 64));
+
+        List<Expense> all = dbHelper.getAllExpenses();
+        for (int i = 0; i < all.size(); i += 7) {
+            Expense expense = all.get(i);
+            expense.setAmountPaise(expense.getAmountPaise() + 100);
+            expense.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            assertEquals(1, dbHelper.updateExpense(expense));
+        }
+        for (int i = 3; i < all.size(); i += 11) {
+            dbHelper.deleteExpense(all.get(i));
+        }
+
+        Snapshot viaRoom = readWithDbHelper(dbHelper);
+        Snapshot viaOldSql = readWithOldQueries(
+                dbHelper.getDatabase().getOpenHelper().getReadableDatabase(), EXPENSES_WITH_NAMES, ROLLUP_SUM);
+        viaOldSql.assertSameAs(viaRoom);
+    }
+
+    private SupportSQLiteOpenHelper openV4Database() {
+        SupportSQLiteOpenHelper.Configuration configuration = SupportSQLiteOpenHelper.Configuration
+                .builder(context)
+                .name(DB_NAME)
+                .callback(new SupportSQLiteOpenHelper.Callback(4) {
+                    @Override
+                    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                        db.execSQL(V4_CREATE_TABLE_EXPENSES);
+                        db.execSQL(DatabaseMigrations.CREATE_INDEX_DATE_MILLIS_V3);
+                        db.execSQL(V4_CREATE_ROLLUP);
+                    }
+
+                    @Override
+                    public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                    }
+                })
+                .build();
+        return new FrameworkSQLiteOpenHelperFactory().create(configuration);
+    }
+
+    // Spread over the last two months, with rows on the edges of today and many sharing a
+    // timestamp so keyset paging has ties to break
+    private static List<Expense> sampleExpenses() {
+        Random random = new Random(42);
+        long[] today = PeriodRanges.todayRange();
+        long[] month = PeriodRanges.thisMonthRange();
+        long[] fixed = {today[0], today[1] - 1, today[1], month[0], month[0] - 1};
+
+        List<Expense> expenses = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long dateMillis;
+            if (i < fixed.length * 4) {
+                dateMillis = fixed[i % fixed.length];
+            } else {
+                // Whole seconds, as the date column stores them
+                dateMillis = (today[1] - (long) (random.nextDouble() * 60 * 24 * 60 * 60 * 1000)) / 1000 * 1000;
+            }
+            long amount = Math.round(random.nextDouble() * 500000);
+            String note = random.nextInt(4) == 0 ? null : "note " + i;
+            expenses.add(new Expense(amount, CATEGORIES[random.nextInt(CATEGORIES.length)], note, new Date(dateMillis)));
+        }
+        return expenses;
+    }
+
+    // ✅ THE OLD DATA LAYER: the SQL DBHelper ran at schema version 4
+
+    // expenses is a subquery giving the table's rows with amount_paise and category, and
+    // rollupSum sums the rollup's totals into paise
+    private static Snapshot readWithOldQueries(SupportSQLiteDatabase db, String expenses, String rollupSum) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.all = sortedById(DBHelper.readExpenses(
+                db.query("SELECT * FROM " + expenses + " ORDER BY timestamp DESC"), "old getAllExpenses", null));
+
+        long beforeDateMillis = Long.MAX_VALUE;
+        int beforeId = Integer.MAX_VALUE;
+        while (true) {
+            String before = String.valueOf(beforeDateMillis);
+            List<Expense> page = DBHelper.readExpenses(db.query("SELECT * FROM " + expenses
+                            + " WHERE date_millis <= ? AND (date_millis < ? OR id < ?)"
+                            + " ORDER BY date_millis DESC, id DESC LIMIT " + PAGE_SIZE,
+                    new Object[]{before, before, String.valueOf(beforeId)}), "old getExpensesPage", null);
+            snapshot.pages.add(describe(page));
+            if (page.size() < PAGE_SIZE) break;
+            Expense last = page.get(page.size() - 1);
+            beforeDateMillis = last.getDate().getTime();
+            beforeId = last.getId();
+        }
+
+        snapshot.today = oldBetween(db, expenses, PeriodRanges.todayRange());
+        snapshot.week = oldBetween(db, expenses, PeriodRanges.thisWeekRange());
+        snapshot.month = oldBetween(db, expenses, PeriodRanges.thisMonthRange());
+        snapshot.count = (int) oldScalar(db, "SELECT COUNT(*) FROM " + expenses);
+
+        snapshot.totals = format(
+                oldScalar(db, "SELECT " + rollupSum + " FROM expense_daily_rollup"),
+                oldRollupTotal(db, rollupSum, PeriodRanges.todayRange()),
+                oldRollupTotal(db, rollupSum, PeriodRanges.thisWeekRange()),
+                oldRollupTotal(db, rollupSum, PeriodRanges.thisMonthRange()));
+
+        long[] month = PeriodRanges.thisMonthRange();
+        String aggregate = "SELECT COUNT(*), SUM(amount_paise), MIN(amount_paise), MAX(amount_paise) FROM " + expenses
+                + " WHERE date_millis >= ? AND date_millis < ?";
+        snapshot.monthSummary = oldSummary(db, aggregate, new Object[]{month[0], month[1]});
+        snapshot.categorySummary = oldSummary(db, aggregate + " AND IFNULL(category, '') IN (?, ?)",
+                new Object[]{month[0], month[1], SUMMARY_CATEGORIES.get(0), SUMMARY_CATEGORIES.get(1)});
+        snapshot.nullCategorySummary = snapshot.categorySummary;
+        return snapshot;
+    }
+
+    private static List<String> oldBetween(SupportSQLiteDatabase db, String expenses, long[] range) {
+        return describe(DBHelper.readExpenses(db.query("SELECT * FROM " + expenses
+                        + " WHERE date_millis >= ? AND date_millis < ?"
+                        + " ORDER BY date_millis DESC, id DESC",
+                new Object[]{String.valueOf(range[0]), String.valueOf(range[1])}), "old getExpensesBetween", null));
+    }
+
+    private static double oldRollupTotal(SupportSQLiteDatabase db, String rollupSum, long[] range) {
+        try (Cursor cursor = db.query("SELECT " + rollupSum + " FROM expense_daily_rollup WHERE day >= ? AND day < ?",
+                new Object[]{String.valueOf(DailyRollup.epochDay(range[0])),
+                        String.valueOf(DailyRollup.epochDay(range[1]))})) {
+            return cursor.moveToFirst() ? cursor.getDouble(0) : 0;
+        }
+    }
+
+    private static double oldScalar(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getDouble(0) : 0;
+        }
+    }
+
+    private static String oldSummary(SupportSQLiteDatabase db, String sql, Object[] args) {
+        try (Cursor cursor = db.query(sql, args)) {
+            if (!cursor.moveToFirst() || cursor.getInt(0) == 0) {
+                return format(0, 0, 0, 0);
+            }
+            return format(cursor.getInt(0), cursor.getDouble(1), cursor.getDouble(2), cursor.getDouble(3));
+        }
+    }
+
+    // ✅ THE NEW DATA LAYER
+
+    private static Snapshot readWithDbHelper(DBHelper helper) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.all = sortedById(helper.getAllExpenses());
+
+        List<Expense> page = helper.getExpensesPage(Long.MAX_VALUE, Integer.MAX_VALUE, PAGE_SIZE);
+        snapshot.pages.add(describe(page));
+        while (page.size() == PAGE_SIZE) {
+            Expense last = page.get(page.size() - 1);
+            page = helper.getExpensesPage(last.getDate().getTime(), last.getId(), PAGE_SIZE);
+            snapshot.pages.add(describe(page));
+        }
+
+        snapshot.today = describe(helper.getTodayExpenses());
+        snapshot.week = describe(helper.getThisWeekExpenses());
+        snapshot.month = describe(helper.getThisMonthExpenses());
+        snapshot.count = helper.getExpensesCount();
+        snapshot.totals = format(helper.getTotalExpenses(), helper.getTodayTotal(),
+                helper.getThisWeekTotal(), helper.getThisMonthTotal());
+
+        long[] month = PeriodRanges.thisMonthRange();
+        ExpenseSummaryEngine engine = helper.getSummaryEngine();
+        snapshot.monthSummary = describe(engine.getSummary(month[0], month[1], null));
+        snapshot.categorySummary = describe(engine.getSummary(month[0], month[1], SUMMARY_CATEGORIES));
+        snapshot.nullCategorySummary = describe(engine.getSummary(month[0], month[1], NULL_SUMMARY_CATEGORIES));
+        return snapshot;
+    }
+
+    // ✅ COMPARISON
+
+    private static final class Snapshot {
+        List<String> all;
+        final List<List<String>> pages = new ArrayList<>();
+        List<String> today;
+        List<String> week;
+        List<String> month;
+        int count;
+        String totals;
+        String monthSummary;
+        String categorySummary;
+        String nullCategorySummary;
+
+        void assertSameAs(Snapshot other) {
+            assertEquals("all rows", all, other.all);
+            assertEquals("feed pages", pages, other.pages);
+            assertEquals("today", today, other.today);
+            assertEquals("this week", week, other.week);
+            assertEquals("this month", month, other.month);
+            assertEquals("count", count, other.count);
+            assertEquals("rollup totals", totals, other.totals);
+            assertEquals("month summary", monthSummary, other.monthSummary);
+            assertEquals("category summary", categorySummary, other.categorySummary);
+            assertEquals("category summary with null", nullCategorySummary, other.nullCategorySummary);
+        }
+    }
+
+    // getAllExpenses orders by insert time, which ties for rows added in the same second
+    private static List<String> sortedById(List<Expense> expenses) {
+        List<Expense> sorted = new ArrayList<>(expenses);
+        sorted.sort(Comparator.comparingInt(Expense::getId));
+        return describe(sorted);
+    }
+
+    private static List<String> describe(List<Expense> expenses) {
+        List<String> rows = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            rows.add(expense.getId() + "|" + expense.getAmountPaise() + "|" + expense.getCategory()
+                    + "|" + expense.getNote() + "|" + expense.getDate().getTime());
+        }
+        return rows;
+    }
+
+    private static String describe(ExpenseSummary summary) {
+        return format(summary.getCount(), summary.getTotal(), summary.getMin(), summary.getMax());
+    }
+
+    // Sums may differ in the last bits depending on the order SQLite adds rows in
+    private static String format(double... values) {
+        StringBuilder text = new StringBuilder();
+        for (double value : values) {
+            text.append(String.format(Locale.US, "%.4f ", value));
+        }
+        return text.toString();
+    }
+}
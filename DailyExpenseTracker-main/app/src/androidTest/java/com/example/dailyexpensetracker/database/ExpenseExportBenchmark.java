@@ -0,0 +1,132 @@
+package com.example.dailyexpensetracker.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.dailyexpensetracker.io.ExpenseExportWriter;
+import com.example.dailyexpensetracker.io.ExpenseExporter;
+import com.example.dailyexpensetracker.models.Expense;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exports a million expenses through ExpenseExporter, as CSV and as gzipped JSON, into a stream
+ * that only counts bytes, sampling the heap after a GC as it goes. The heap should stay where it
+ * started however many rows have been written. Results are written to logcat under this class
+ * name.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ExpenseExportBenchmark {
+
+    private static final String TAG = "ExpenseExportBenchmark";
+    private static final String DB_NAME = "export_benchmark.db";
+    private static final int ROWS = 1_000_000;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final String[] CATEGORIES = {"Food", "Travel", "Bills", "Shopping", "Health"};
+    // Rows between heap samples; each sample runs a few GCs
+    private static final int SAMPLE_INTERVAL = 200_000;
+    // Room for the cursor window, the writer's buffers and GC noise
+    private static final long MAX_HEAP_GROWTH = 8L * 1024 * 1024;
+
+    private Context context;
+    private DBHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        dbHelper = new DBHelper(context, DB_NAME);
+        long now = System.currentTimeMillis();
+        Random random = new Random(1);
+        dbHelper.addExpenses(() -> new Iterator<Expense>() {
+            private int id;
+
+            @Override
+            public boolean hasNext() {
+                return id < ROWS;
+            }
+
+            @Override
+            public Expense next() {
+                id++;
+                return new Expense(random.nextInt(100_000), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                        random.nextBoolean() ? null : "note, \"" + id + "\"",
+                        new Date(now - (long) (random.nextDouble() * 3 * 365 * DAY)));
+            }
+        }, 5000);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void csv() throws IOException {
+        export(ExpenseExportWriter.Format.CSV, false);
+    }
+
+    @Test
+    public void gzippedJson() throws IOException {
+        export(ExpenseExportWriter.Format.JSON, true);
+    }
+
+    private void export(ExpenseExportWriter.Format format, boolean gzip) throws IOException {
+        CountingStream out = new CountingStream();
+        long before = usedAfterGc();
+        long[] maxUsed = {before};
+        long start = System.nanoTime();
+        ExpenseExporter.Result result = new ExpenseExporter(dbHelper).exportAll(out, format, gzip,
+                (rowsWritten, totalRows) -> {
+                    if (rowsWritten % SAMPLE_INTERVAL == 0) maxUsed[0] = Math.max(maxUsed[0], usedAfterGc());
+                });
+        long nanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format(Locale.US, "%s%s: %d rows, %.1f MB written in %.0f ms; heap growth %.1f MB",
+                format, gzip ? " gzip" : "", result.rowsWritten, out.bytes / 1e6, nanos / 1e6,
+                (maxUsed[0] - before) / 1e6));
+        assertEquals(ROWS, result.rowsWritten);
+        assertTrue("heap should not grow with the rows written", maxUsed[0] - before < MAX_HEAP_GROWTH);
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Keeps nothing, so the only memory the export can hold on to is its own
+    private static final class CountingStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
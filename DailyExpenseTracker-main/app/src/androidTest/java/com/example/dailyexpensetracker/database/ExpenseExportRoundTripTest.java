@@ -0,0 +1,130 @@
+package com.example.dailyexpensetracker.database;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.dailyexpensetracker.io.CsvExpenseImporter;
+import com.example.dailyexpensetracker.io.ExpenseExportWriter;
+import com.example.dailyexpensetracker.io.ExpenseExporter;
+import com.example.dailyexpensetracker.models.Expense;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Exports expenses as CSV through ExpenseExporter, plain and gzipped, imports the file into an
+ * empty database with CsvExpenseImporter and checks every row comes back as it went out,
+ * including notes with commas, quotes and line breaks.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ExpenseExportRoundTripTest {
+
+    private static final String SOURCE_DB_NAME = "export_round_trip_source.db";
+    private static final String TARGET_DB_NAME = "export_round_trip_target.db";
+    // Whole seconds, as the export writes dates to the second
+    private static final long BASE_MILLIS = 1_714_536_000_000L;
+    private static final long HOUR = 60L * 60 * 1000;
+    private static final String[] CATEGORIES = {"Food", null, "Bills, rent", "Say \"hi\""};
+    private static final String[] NOTES = {
+            "Lunch",
+            null,
+            "a, b and c",
+            "said \"paid\"",
+            "first line\nsecond line",
+            "windows\r\nline break",
+            "blank line\n\nbetween",
+            "\"quoted\nover\nthree lines\""
+    };
+
+    private Context context;
+    private DBHelper source;
+    private DBHelper target;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(SOURCE_DB_NAME);
+        context.deleteDatabase(TARGET_DB_NAME);
+        source = new DBHelper(context, SOURCE_DB_NAME);
+        target = new DBHelper(context, TARGET_DB_NAME);
+        for (int i = 0; i < NOTES.length * CATEGORIES.length; i++) {
+            source.addExpense(new Expense(i * 1_001L - 500, CATEGORIES[i % CATEGORIES.length],
+                    NOTES[i % NOTES.length], new Date(BASE_MILLIS + i * HOUR)));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        source.close();
+        target.close();
+        context.deleteDatabase(SOURCE_DB_NAME);
+        context.deleteDatabase(TARGET_DB_NAME);
+    }
+
+    @Test
+    public void csv() throws IOException {
+        roundTrip(false);
+    }
+
+    @Test
+    public void gzippedCsv() throws IOException {
+        roundTrip(true);
+    }
+
+    private void roundTrip(boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long[] reportedTotal = {-1};
+        ExpenseExporter.Result exported = new ExpenseExporter(source).exportAll(out,
+                ExpenseExportWriter.Format.CSV, gzip, (rowsWritten, totalRows) -> reportedTotal[0] = totalRows);
+
+        InputStream in = new ByteArrayInputStream(out.toByteArray());
+        if (gzip) in = new GZIPInputStream(in);
+        CsvExpenseImporter.Result imported;
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            imported = new CsvExpenseImporter(target).importFrom(reader, null);
+        }
+
+        List<Expense> expected = sorted(source.getAllExpenses());
+        List<Expense> actual = sorted(target.getAllExpenses());
+        assertEquals(expected.size(), exported.rowsWritten);
+        assertEquals(expected.size(), reportedTotal[0]);
+        assertEquals(expected.size(), imported.imported);
+        assertEquals(0, imported.rejected);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Expense want = expected.get(i);
+            Expense got = actual.get(i);
+            assertEquals(want.getDate().getTime(), got.getDate().getTime());
+            assertEquals(want.getCategory(), got.getCategory());
+            // No note comes back as an empty one; a CR LF inside a note comes back as LF
+            String note = want.getNote() == null ? "" : want.getNote().replace("\r\n", "\n");
+            assertEquals(note, got.getNote());
+            assertEquals(want.getAmountPaise(), got.getAmountPaise());
+        }
+    }
+
+    private static List<Expense> sorted(List<Expense> expenses) {
+        List<Expense> copy = new ArrayList<>(expenses);
+        copy.sort(Comparator.comparingLong(e -> e.getDate().getTime()));
+        return copy;
+    }
+}
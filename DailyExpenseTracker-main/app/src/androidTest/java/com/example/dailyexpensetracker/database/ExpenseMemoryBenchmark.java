@@ -0,0 +1,113 @@
+package com.example.dailyexpensetracker.database;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.dailyexpensetracker.models.Expense;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Heap held by a million expenses as a List of Expense objects, as the day index kept them,
+ * against ExpenseColumnStore's primitive columns, and the time to total a month over each.
+ * Measured on the device's runtime, since object headers and String layout differ from a
+ * desktop JVM. Results are written to logcat under this class name.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ExpenseMemoryBenchmark {
+
+    private static final String TAG = "ExpenseMemoryBenchmark";
+    private static final int ROWS = 1_000_000;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final String[] CATEGORIES = {"Food", "Travel", "Bills", "Shopping", "Health"};
+
+    // Set by the measurements so the JIT can't drop the loops or the GC the data
+    private Object retained;
+
+    @Test
+    public void objectsAgainstColumns() {
+        long now = System.currentTimeMillis();
+        long monthStart = now - 30 * DAY;
+
+        long objectsBytes = retainedBytes(() -> {
+            Random random = new Random(1);
+            List<Expense> expenses = new ArrayList<>(ROWS);
+            for (int id = 1; id <= ROWS; id++) {
+                // Notes are included here, as the objects held them; the store reads them lazily
+                expenses.add(new Expense(id, random.nextInt(100_000), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                        "note " + id, new Date(now - (long) (random.nextDouble() * 3 * 365 * DAY))));
+            }
+            return expenses;
+        });
+        @SuppressWarnings("unchecked")
+        List<Expense> expenses = (List<Expense>) retained;
+        long start = System.nanoTime();
+        long objectsTotal = 0;
+        for (Expense expense : expenses) {
+            long millis = expense.getDate().getTime();
+            if (millis >= monthStart && millis < now) objectsTotal += expense.getAmountPaise();
+        }
+        long objectsNanos = System.nanoTime() - start;
+        expenses = null;
+
+        long columnsBytes = retainedBytes(() -> {
+            Random random = new Random(1);
+            ExpenseColumnStore.Builder rows = new ExpenseColumnStore.Builder(ROWS);
+            for (int id = 1; id <= ROWS; id++) {
+                long amount = random.nextInt(100_000);
+                int category = 1 + random.nextInt(CATEGORIES.length);
+                rows.add(id, now - (long) (random.nextDouble() * 3 * 365 * DAY), amount, category);
+            }
+            ExpenseColumnStore store = new ExpenseColumnStore();
+            assertTrue(store.load(rows, store.getVersion()));
+            return store;
+        });
+        ExpenseColumnStore store = (ExpenseColumnStore) retained;
+        start = System.nanoTime();
+        long columnsTotal = store.summary(monthStart, now, null).total;
+        long columnsNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format(Locale.US,
+                "%d rows: objects %.1f MB (%d B/row), columns %.1f MB (%d B/row);"
+                        + " month total: objects %.1f ms, columns %.1f ms",
+                ROWS, objectsBytes / 1e6, objectsBytes / ROWS, columnsBytes / 1e6, columnsBytes / ROWS,
+                objectsNanos / 1e6, columnsNanos / 1e6));
+
+        // Both were built from the same seed, so they hold the same rows
+        assertEquals(objectsTotal, columnsTotal);
+        assertEquals(ROWS, store.size());
+        assertTrue("columns should take well under half the heap", columnsBytes * 2 < objectsBytes);
+    }
+
+    private interface Allocation {
+        Object allocate();
+    }
+
+    // Heap still in use after a GC once the allocation is kept, less what was in use before
+    private long retainedBytes(Allocation allocation) {
+        retained = null;
+        long before = usedAfterGc();
+        retained = allocation.allocate();
+        return usedAfterGc() - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.dailyexpensetracker.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseSearchResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Time to find every match for a word in a large synthetic table: the FTS index (prefix match,
+ * ranked) against LIKE '%word%' on note and category, which has to scan every row.
+ * Results are written to logcat under this class name.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchBenchmark {
+
+    private static final String TAG = "SearchBenchmark";
+    private static final String DB_NAME = "search_benchmark.db";
+    private static final int ROWS = 100_000;
+    private static final int RUNS = 5;
+    private static final int FILLER_WORDS = 2000;
+
+    private static final String[] CATEGORIES = {"Food", "Transport", "Bills", "Shopping", "Health", "Travel"};
+    // From rare to common in the generated notes
+    private static final String[] TERMS = {"anniversary", "pharmacy", "taxi", "groceries"};
+
+    private Context context;
+    private DBHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        dbHelper = new DBHelper(context, DB_NAME);
+        dbHelper.addExpenses(syntheticExpenses());
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void ftsAgainstLike() {
+        SupportSQLiteDatabase db = dbHelper.getDatabase().getOpenHelper().getReadableDatabase();
+        for (String term : TERMS) {
+            // Warm both paths so page cache effects don't favour the second one
+            ExpenseSearchResult result = dbHelper.searchExpenses(term);
+            Set<Integer> likeIds = likeSearch(db, term);
+
+            long ftsNanos = 0;
+            long likeNanos = 0;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                result = dbHelper.searchExpenses(term);
+                dbHelper.getSearchPage(result, 0, 50);
+                ftsNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                likeIds = likeSearch(db, term);
+                likeNanos += System.nanoTime() - start;
+            }
+
+            // Every prefix match is also a substring match
+            for (int i = 0; i < result.size(); i++) {
+                assertTrue(likeIds.contains(result.idAt(i)));
+            }
+            Log.i(TAG, String.format(Locale.US,
+                    "'%s' over %d rows: FTS %.2f ms (%d hits, ranked, first page loaded), LIKE %.2f ms (%d hits)",
+                    term, ROWS, ftsNanos / 1e6 / RUNS, result.size(), likeNanos / 1e6 / RUNS, likeIds.size()));
+        }
+    }
+
+    private static Set<Integer> likeSearch(SupportSQLiteDatabase db, String term) {
+        Set<Integer> ids = new HashSet<>();
+        String pattern = "%" + term + "%";
+        try (Cursor cursor = db.query("SELECT e.id FROM expenses e"
+                        + " LEFT JOIN categories c ON c.id = e.category_id"
+                        + " WHERE e.note LIKE ? OR c.name LIKE ?",
+                new Object[]{pattern, pattern})) {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getInt(0));
+            }
+        }
+        return ids;
+    }
+
+    // Notes of three to six words drawn from a skewed vocabulary, so the search terms range
+    // from a handful of hits to a large share of the table
+    private static List<Expense> syntheticExpenses() {
+        Random random = new Random(7);
+        String[] filler = new String[FILLER_WORDS];
+        for (int i = 0; i < FILLER_WORDS; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            filler[i] = word.toString();
+        }
+
+        long now = System.currentTimeMillis();
+        List<Expense> expenses = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            StringBuilder note = new StringBuilder();
+            int words = 3 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) note.append(' ');
+                int roll = random.nextInt(1000);
+                if (roll == 0) note.append(TERMS[0]);
+                else if (roll < 10) note.append(TERMS[1]);
+                else if (roll < 60) note.append(TERMS[2]);
+                else if (roll < 200) note.append(TERMS[3]);
+                else note.append(filler[random.nextInt(FILLER_WORDS)]);
+            }
+            expenses.add(new Expense(random.nextInt(100000),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], note.toString(),
+                    new Date(now - random.nextInt(365) * 86_400_000L)));
+        }
+        return expenses;
+    }
+}
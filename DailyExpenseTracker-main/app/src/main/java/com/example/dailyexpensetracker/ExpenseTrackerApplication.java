@@ -0,0 +1,40 @@
+package com.example.dailyexpensetracker;
+
+import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.dailyexpensetracker.repository.ExpenseRepository;
+import com.example.dailyexpensetracker.utils.PeriodClock;
+
+// Keeps PeriodClock's today / week / month bounds right for as long as the process lives.
+// Midnight is noticed by the clock itself; a new time zone, a clock set by hand or a new locale
+// (which can move the first day of the week) are only known from these broadcasts.
+public class ExpenseTrackerApplication extends Application {
+
+    private final BroadcastReceiver clockChangeReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            PeriodClock.get().refresh();
+            if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
+                ExpenseRepository.getInstance(context).onTimeZoneChanged();
+            }
+        }
+    };
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_DATE_CHANGED);
+        filter.addAction(Intent.ACTION_LOCALE_CHANGED);
+        // System broadcasts still arrive; nothing else can send these to us
+        ContextCompat.registerReceiver(this, clockChangeReceiver, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+    }
+}
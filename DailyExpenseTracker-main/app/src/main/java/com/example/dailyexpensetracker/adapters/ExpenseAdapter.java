@@ -9,39 +9,213 @@ import com.example.dailyexpensetracker.ui.EditExpenseActivity;
 
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.example.dailyexpensetracker.R;
-import com.example.dailyexpensetracker.database.DBHelper;
 import com.example.dailyexpensetracker.databinding.ItemExpenseBinding;
 import com.example.dailyexpensetracker.models.Expense;
-import com.google.android.material.snackbar.Snackbar;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+import com.example.dailyexpensetracker.models.ExpenseRow;
 
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
 
-public class ExpenseAdapter extends RecyclerView.Adapter<ExpenseAdapter.ViewHolder> {
+// Shows expense rows (rendered off the main thread by ExpenseRowFormatter) from immutable list
+// snapshots. Each new list is diffed against the current one on a background thread
+// (ListAdapter), so only rows that were added, removed or edited are rebound and item
+// animations run. Submitted lists must not be modified afterwards. Rows with a hidden id
+// (deletions waiting for undo) are left out of what is shown.
+public class ExpenseAdapter extends ListAdapter<ExpenseRow, ExpenseAdapter.ViewHolder> {
+
+    public interface SelectionListener {
+        // count is 0 when selection mode ends
+        void onSelectionChanged(int count);
+    }
+
+    // Passed to notifyItemChanged so a selection change only redraws the checked state
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    // Same row when the id matches; same contents when every field and rendered string does
+    // (unchanged rows come back from the formatter's cache as the same object)
+    private static final DiffUtil.ItemCallback<ExpenseRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<ExpenseRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ExpenseRow oldItem, @NonNull ExpenseRow newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ExpenseRow oldItem, @NonNull ExpenseRow newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
 
-    private List<Expense> expenseList;
     private final Context context;
-    private final DBHelper dbHelper;
-    private final NumberFormat currencyFormat;
-    private final SimpleDateFormat dateFormat;
+    private final SelectionListener selectionListener;
+    // Last list submitted, hidden rows included; getCurrentList() lags behind it until the diff finishes
+    private List<ExpenseRow> latestList = Collections.emptyList();
+    private Set<Integer> hiddenIds = Collections.emptySet();
+    // Ids picked in selection mode, in the order they were picked
+    private final Set<Integer> selectedIds = new LinkedHashSet<>();
 
-    public ExpenseAdapter(Context context, List<Expense> expenseList, DBHelper dbHelper) {
+    public ExpenseAdapter(Context context, SelectionListener selectionListener) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.expenseList = expenseList;
-        this.dbHelper = dbHelper;
-        this.currencyFormat = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
-        this.dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        this.selectionListener = selectionListener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public void submitList(@Nullable List<ExpenseRow> list) {
+        submitList(list, null);
+    }
+
+    @Override
+    public void submitList(@Nullable List<ExpenseRow> list, @Nullable Runnable commitCallback) {
+        latestList = list != null ? list : Collections.emptyList();
+        super.submitList(visible(latestList), commitCallback);
+    }
+
+    // The most recently submitted list, including any diff still in progress
+    public List<ExpenseRow> getLatestList() {
+        return latestList;
+    }
+
+    // Rows already shown are skipped: a change may have put a row in before its page arrived
+    public void appendData(List<ExpenseRow> page) {
+        if (page.isEmpty()) return;
+        Set<Integer> shown = new HashSet<>(latestList.size() * 2);
+        for (ExpenseRow row : latestList) {
+            shown.add(row.getId());
+        }
+        List<ExpenseRow> combined = new ArrayList<>(latestList.size() + page.size());
+        combined.addAll(latestList);
+        for (ExpenseRow row : page) {
+            if (shown.add(row.getId())) combined.add(row);
+        }
+        submitList(combined);
+    }
+
+    // ✅ CHANGE FEED
+
+    // Patches the shown list in place of reloading it; see withChanges
+    public void applyChanges(List<ExpenseChange> changes, Predicate<Expense> belongs, boolean complete) {
+        if (changes.isEmpty()) return;
+        submitList(withChanges(latestList, changes, belongs, complete));
+    }
+
+    // rows (newest first, like the feed) with each change applied in order: the old row is
+    // dropped and the new one inserted where it sorts, if belongs accepts it. Unless the list is
+    // complete, a row sorting after the last one is left for paging to bring in. Applying a
+    // change the rows already reflect leaves them as they are.
+    public static List<ExpenseRow> withChanges(List<ExpenseRow> rows, List<ExpenseChange> changes,
+                                               Predicate<Expense> belongs, boolean complete) {
+        List<ExpenseRow> result = new ArrayList<>(rows);
+        for (ExpenseChange change : changes) {
+            int id = change.getId();
+            for (int i = 0; i < result.size(); i++) {
+                if (result.get(i).getId() == id) {
+                    result.remove(i);
+                    break;
+                }
+            }
+            ExpenseRow row = change.getAfterRow();
+            if (row == null || !belongs.test(row.getExpense())) continue;
+            int position = insertionPoint(result, row);
+            if (complete || position < result.size()) {
+                result.add(position, row);
+            }
+        }
+        return result;
+    }
+
+    // First position whose row sorts after row in (date DESC, id DESC) order
+    private static int insertionPoint(List<ExpenseRow> rows, ExpenseRow row) {
+        long millis = row.getExpense().getDate().getTime();
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            ExpenseRow other = rows.get(mid);
+            long otherMillis = other.getExpense().getDate().getTime();
+            boolean before = otherMillis > millis || (otherMillis == millis && other.getId() > row.getId());
+            if (before) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    public void setHiddenIds(Set<Integer> ids) {
+        hiddenIds = ids;
+        if (selectedIds.removeAll(ids)) {
+            selectionListener.onSelectionChanged(selectedIds.size());
+        }
+        submitList(latestList);
+    }
+
+    private List<ExpenseRow> visible(List<ExpenseRow> rows) {
+        if (hiddenIds.isEmpty()) return rows;
+        List<ExpenseRow> shown = new ArrayList<>(rows.size());
+        for (ExpenseRow row : rows) {
+            if (!hiddenIds.contains(row.getId())) shown.add(row);
+        }
+        return shown;
+    }
+
+    // ✅ SELECTION MODE
+
+    public boolean isSelecting() {
+        return !selectedIds.isEmpty();
     }
 
-    public void updateData(List<Expense> newExpenses) {
-        this.expenseList = newExpenses;
-        notifyDataSetChanged();
+    public List<Integer> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
+    // Restores a selection, e.g. after the Activity was recreated
+    public void setSelectedIds(Iterable<Integer> ids) {
+        selectedIds.clear();
+        for (Integer id : ids) {
+            selectedIds.add(id);
+        }
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        selectionListener.onSelectionChanged(selectedIds.size());
+    }
+
+    // Adds every shown row to the selection
+    public void selectAll() {
+        for (ExpenseRow row : getCurrentList()) {
+            selectedIds.add(row.getId());
+        }
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        selectionListener.onSelectionChanged(selectedIds.size());
+    }
+
+    public void clearSelection() {
+        if (selectedIds.isEmpty()) return;
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        selectionListener.onSelectionChanged(0);
+    }
+
+    private void toggleSelection(int position) {
+        int id = getItem(position).getId();
+        if (!selectedIds.remove(id)) {
+            selectedIds.add(id);
+        }
+        notifyItemChanged(position, PAYLOAD_SELECTION);
+        selectionListener.onSelectionChanged(selectedIds.size());
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     @NonNull
@@ -52,56 +226,45 @@ public class ExpenseAdapter extends RecyclerView.Adapter<ExpenseAdapter.ViewHold
                 parent,
                 false
         );
-        return new ViewHolder(binding);
-    }
+        ViewHolder holder = new ViewHolder(binding);
 
-    @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Expense expense = expenseList.get(position);
-        holder.bind(expense);
-
-        // 🟢 Edit on single tap
+        // Rows move without being rebound, so look the expense up when the click happens
+        // 🟢 Edit on single tap, or toggle the row while selecting
         holder.itemView.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) return;
+            if (isSelecting()) {
+                toggleSelection(position);
+                return;
+            }
             Intent intent = new Intent(context, EditExpenseActivity.class);
-            intent.putExtra("expense_id", expense.getId());
+            intent.putExtra("expense_id", getItem(position).getId());
             context.startActivity(intent);
         });
+        // 🟢 Long press starts selecting rows to delete
         holder.itemView.setOnLongClickListener(v -> {
-            showUndoSnackbar(holder, position, expense);
+            int position = holder.getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) return false;
+            toggleSelection(position);
             return true;
         });
+        return holder;
     }
 
-
-    private void showUndoSnackbar(ViewHolder holder, int position, Expense expense) {
-        Expense deletedExpense = new Expense(expense); // Using copy constructor
-        int deletedPosition = position;
-
-        // Remove item temporarily
-        expenseList.remove(position);
-        notifyItemRemoved(position);
-
-        Snackbar.make(holder.itemView, context.getString(R.string.expense_deleted), Snackbar.LENGTH_LONG)
-                .setAction(context.getString(R.string.undo), v -> {
-                    // Undo deletion
-                    expenseList.add(deletedPosition, deletedExpense);
-                    notifyItemInserted(deletedPosition);
-                })
-                .addCallback(new Snackbar.Callback() {
-                    @Override
-                    public void onDismissed(Snackbar snackbar, int event) {
-                        if (event != DISMISS_EVENT_ACTION) {
-                            // Permanent deletion
-                            dbHelper.deleteExpense(deletedExpense.getId());
-                        }
-                    }
-                })
-                .show();
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        ExpenseRow row = getItem(position);
+        holder.bind(row);
+        holder.setSelected(selectedIds.contains(row.getId()));
     }
 
     @Override
-    public int getItemCount() {
-        return expenseList != null ? expenseList.size() : 0;
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        holder.setSelected(selectedIds.contains(getItem(position).getId()));
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
@@ -110,52 +273,19 @@ public class ExpenseAdapter extends RecyclerView.Adapter<ExpenseAdapter.ViewHold
         public ViewHolder(ItemExpenseBinding binding) {
             super(binding.getRoot());
             this.binding = binding;
+            binding.getRoot().setCheckable(true);
         }
 
-        public void bind(Expense expense) {
-            if (expense == null) {
-                showEmptyState();
-                return;
-            }
-
-            try {
-                binding.tvCategory.setText(expense.getCategory() != null ?
-                        expense.getCategory() : "No Category");
-
-                binding.tvNote.setText(expense.getNote() != null ?
-                        expense.getNote() : "");
-
-                binding.tvAmount.setText(formatCurrency(expense.getAmount()));
-                binding.tvDate.setText(formatDate(expense.getDate()));
-            } catch (Exception e) {
-                showEmptyState();
-            }
-        }
-
-        private String formatCurrency(double amount) {
-            try {
-                NumberFormat format = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
-                return format.format(amount);
-            } catch (Exception e) {
-                return "₹0.00";
-            }
-        }
-
-        private String formatDate(Date date) {
-            if (date == null) return "No Date";
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-                return sdf.format(date);
-            } catch (Exception e) {
-                return "Invalid Date";
-            }
+        // Text was rendered when the rows loaded, so binding allocates nothing
+        public void bind(ExpenseRow row) {
+            binding.tvCategory.setText(row.getCategoryText());
+            binding.tvNote.setText(row.getNoteText());
+            binding.tvAmount.setText(row.getAmountText());
+            binding.tvDate.setText(row.getDateText());
         }
 
-        private void showEmptyState() {
-            binding.tvCategory.setText("Error");
-            binding.tvNote.setText("");
-            binding.tvAmount.setText("₹0.00");
-            binding.tvDate.setText("N/A");
+        void setSelected(boolean selected) {
+            binding.getRoot().setChecked(selected);
         }
     }
 
@@ -0,0 +1,116 @@
+package com.example.dailyexpensetracker.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.dailyexpensetracker.models.ExpenseRow;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Loads the expense feed one page at a time as the RecyclerView nears the end of what is loaded,
+// so only the rows the user actually scrolls through are ever read.
+public class ExpensePager extends RecyclerView.OnScrollListener {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 15;
+
+    public interface PageLoader {
+        // Loads the page after lastLoaded (null for the first page) and passes it to onLoaded
+        // on the main thread, or null if the load failed
+        void loadPage(ExpenseRow lastLoaded, int pageSize, Consumer<List<ExpenseRow>> onLoaded);
+    }
+
+    public interface Callback {
+        // page is null if loading failed; scrolling further retries it
+        void onPageLoaded(List<ExpenseRow> page, boolean firstPage);
+    }
+
+    private final PageLoader loader;
+    private final Callback callback;
+    private final int pageSize;
+
+    private ExpenseRow lastLoaded;
+    private boolean loading;
+    private boolean endReached = true;
+    // Bumped by reset() and stop() so answers to older requests are dropped
+    private int generation;
+
+    public ExpensePager(PageLoader loader, Callback callback) {
+        this(loader, callback, DEFAULT_PAGE_SIZE);
+    }
+
+    public ExpensePager(PageLoader loader, Callback callback, int pageSize) {
+        this.loader = loader;
+        this.callback = callback;
+        this.pageSize = pageSize;
+    }
+
+    // Start again from the newest expense
+    public void reset() {
+        reset(pageSize);
+    }
+
+    // Start again from the newest expense with a first page of at least firstPageSize rows.
+    // Refreshing with the number of rows on screen keeps the list the same length, so a diff
+    // against it only touches the rows that actually changed.
+    public void reset(int firstPageSize) {
+        generation++;
+        lastLoaded = null;
+        endReached = false;
+        loading = false;
+        load(Math.max(firstPageSize, pageSize));
+    }
+
+    // Stop paging, e.g. while a filtered list is shown
+    public void stop() {
+        generation++;
+        endReached = true;
+        loading = false;
+    }
+
+    // True once every row has been loaded, or while paging is stopped
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    public void loadNextPage() {
+        load(pageSize);
+    }
+
+    private void load(int size) {
+        if (loading || endReached) return;
+        loading = true;
+
+        boolean firstPage = lastLoaded == null;
+        int requestGeneration = generation;
+        loader.loadPage(lastLoaded, size, page -> {
+            if (requestGeneration != generation) return;
+            loading = false;
+            if (page != null) {
+                if (page.size() < size) {
+                    endReached = true;
+                }
+                if (!page.isEmpty()) {
+                    lastLoaded = page.get(page.size() - 1);
+                }
+            }
+            callback.onPageLoaded(page, firstPage);
+        });
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy <= 0 || loading || endReached) return;
+
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) return;
+
+        int lastVisible = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        if (lastVisible >= layoutManager.getItemCount() - PREFETCH_DISTANCE) {
+            // Adapter changes are not allowed inside a scroll callback
+            recyclerView.post(this::loadNextPage);
+        }
+    }
+}
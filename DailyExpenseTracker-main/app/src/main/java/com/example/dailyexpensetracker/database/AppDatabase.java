@@ -0,0 +1,35 @@
+package com.example.dailyexpensetracker.database;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+// The Room database behind DBHelper. It owns the same file the old SQLiteOpenHelper wrote,
+// upgrading it in place through DatabaseMigrations.
+@Database(entities = {CategoryEntity.class, ExpenseEntity.class, DailyRollupEntity.class, ExpenseFtsEntity.class},
+        version = AppDatabase.VERSION, exportSchema = false)
+public abstract class AppDatabase extends RoomDatabase {
+
+    static final int VERSION = 8;
+
+    public abstract ExpenseDao expenseDao();
+
+    static AppDatabase open(Context context, String databaseName) {
+        return Room.databaseBuilder(context, AppDatabase.class, databaseName)
+                .addMigrations(DatabaseMigrations.ALL)
+                .addCallback(new Callback() {
+                    @Override
+                    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                        // Room creates the tables and indexes; the rollup and search triggers are ours
+                        DailyRollup.create(db);
+                        ExpenseSearch.createTriggers(db);
+                    }
+                })
+                .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                .build();
+    }
+}
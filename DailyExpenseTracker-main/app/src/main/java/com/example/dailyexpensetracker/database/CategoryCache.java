@@ -0,0 +1,94 @@
+package com.example.dailyexpensetracker.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Every category id and name, loaded from the categories table once and kept for the life of
+// the process (DBHelper is a singleton). Names are interned here: each category has a single
+// String instance, shared by every Expense read from the database.
+// Expenses store NULL for no category; a null or empty name maps to it. Thread-safe.
+public final class CategoryCache {
+
+    static final String TABLE = "categories";
+    static final String COLUMN_ID = "id";
+    static final String COLUMN_NAME = "name";
+    static final String INDEX_NAME = "idx_categories_name";
+
+    // Stands for "no category" where NULL can't be used, e.g. in the rollup's key
+    static final long NONE = 0;
+
+    private final ExpenseDao dao;
+    private final Map<Long, String> namesById = new HashMap<>();
+    private final Map<String, Long> idsByName = new HashMap<>();
+    private boolean loaded;
+
+    CategoryCache(ExpenseDao dao) {
+        this.dao = dao;
+    }
+
+    // The interned name for an id; null for NONE or an id that isn't in the table
+    public synchronized String nameOf(long id) {
+        ensureLoaded();
+        return namesById.get(id);
+    }
+
+    // Id of a category, NONE for no category, or null if no expense has ever used the name
+    public synchronized Long idOf(String name) {
+        if (name == null || name.isEmpty()) return NONE;
+        ensureLoaded();
+        return idsByName.get(name);
+    }
+
+    // The shared instance of a stored category name, null for no category, or the name itself
+    // if it isn't stored yet
+    public synchronized String canonical(String name) {
+        Long id = idOf(name);
+        if (id == null) return name;
+        return id == NONE ? null : namesById.get(id);
+    }
+
+    // Every category name, sorted
+    public synchronized List<String> names() {
+        ensureLoaded();
+        List<String> names = new ArrayList<>(idsByName.keySet());
+        Collections.sort(names, String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    // Id to store for a category, adding the category if it is new; null for no category.
+    // Call it inside the transaction that writes the expense.
+    synchronized Long idFor(String name) {
+        Long id = idOf(name);
+        if (id != null) return id == NONE ? null : id;
+        long inserted = dao.insertCategory(name);
+        // -1 if another connection added it first
+        long newId = inserted != -1 ? inserted : dao.getCategoryId(name);
+        put(newId, name);
+        return newId;
+    }
+
+    // Forgets everything, e.g. after a rolled-back write that may have added categories;
+    // the next call loads the table again
+    synchronized void invalidate() {
+        loaded = false;
+        namesById.clear();
+        idsByName.clear();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        for (ExpenseDao.CategoryRow row : dao.getCategories()) {
+            put(row.id, row.name);
+        }
+        loaded = true;
+    }
+
+    // The instance stored here is the one every expense read afterwards shares
+    private void put(long id, String name) {
+        namesById.put(id, name);
+        idsByName.put(name, id);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.dailyexpensetracker.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Room's definition of the categories table: one row per category name, referenced from
+// expenses by id. Rows are added and read through CategoryCache.
+@Entity(
+        tableName = CategoryCache.TABLE,
+        indices = {@Index(name = CategoryCache.INDEX_NAME, value = {CategoryCache.COLUMN_NAME}, unique = true)})
+public class CategoryEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = CategoryCache.COLUMN_ID)
+    public long id;
+
+    @NonNull
+    @ColumnInfo(name = CategoryCache.COLUMN_NAME)
+    public String name = "";
+}
@@ -5,237 +5,663 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
-import android.database.sqlite.SQLiteOpenHelper;
 
+import com.example.dailyexpensetracker.models.CategoryTotal;
 import com.example.dailyexpensetracker.models.Expense;
-
-import java.text.SimpleDateFormat;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+import com.example.dailyexpensetracker.models.ExpenseReport;
+import com.example.dailyexpensetracker.models.ExpenseSearchResult;
+import com.example.dailyexpensetracker.models.NoteTotal;
+import com.example.dailyexpensetracker.models.SpendingBreakdown;
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+import com.example.dailyexpensetracker.utils.PeriodClock;
+import com.example.dailyexpensetracker.utils.PeriodRanges;
+import com.example.dailyexpensetracker.utils.ReportEngine;
+
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+// Entry point for everything stored about expenses. The SQL lives in ExpenseDao and is run
+// by Room (AppDatabase); this class keeps the date handling, bulk import and row mapping
+// that callers have always gone through.
+public class DBHelper {
+
+    // Told about every committed write, on the thread that made it
+    public interface ChangeListener {
+        // changes is null when the write isn't described row by row (a bulk import), so
+        // anything may have changed
+        void onExpensesChanged(List<ExpenseChange> changes);
+    }
 
-public class DBHelper extends SQLiteOpenHelper {
     private static final String DATABASE_NAME = "expense_tracker.db";
-    private static final int DATABASE_VERSION = 2;
 
     public static final String TABLE_EXPENSES = "expenses";
     public static final String COLUMN_ID = "id";
+    // Only on cursors over tables from before categories had their own table, and in the search index
     public static final String COLUMN_CATEGORY = "category";
+    public static final String COLUMN_CATEGORY_ID = "category_id";
     public static final String COLUMN_NOTE = "note";
-    public static final String COLUMN_AMOUNT = "amount";
+    // In paise; see Money
+    public static final String COLUMN_AMOUNT = "amount_paise";
     public static final String COLUMN_DATE = "date";
     public static final String COLUMN_TIMESTAMP = "timestamp";
+    public static final String COLUMN_DATE_MILLIS = "date_millis";
+
+    static final String INDEX_DATE_MILLIS = "idx_expenses_date_millis";
+    static final String INDEX_CATEGORY_ID = "idx_expenses_category_id";
+
+    // Rows per transaction for bulk inserts unless the caller picks another size
+    public static final int DEFAULT_BULK_CHUNK_SIZE = 500;
+
+    // Most points in a spending-over-time series, however long the period
+    public static final int MAX_SERIES_POINTS = 60;
+    private static final long MILLIS_PER_HOUR = 60L * 60 * 1000;
+
+    // Keeps id lists under SQLite's 999 bound-parameter limit on older devices
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private static DBHelper instance;
+
+    private final AppDatabase database;
+    private final ExpenseDao dao;
+    // Every category name once, by id, so rows carry an integer instead of the text
+    private final CategoryCache categoryCache;
+
+    private final ExpenseSummaryEngine summaryEngine = new ExpenseSummaryEngine(this);
+    // Every expense as primitive columns; serves the period filters, summaries and chart data
+    // from memory once loaded
+    private final ExpenseColumnStore columnStore = new ExpenseColumnStore();
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
-    private static final SimpleDateFormat DATE_FORMAT =
-            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+    // One helper (and so one open database) for the whole process. It is never closed by
+    // screens, so an adapter or background task can keep using it after its Activity is gone.
+    public static synchronized DBHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DBHelper(context.getApplicationContext(), DATABASE_NAME);
+        }
+        return instance;
+    }
 
-    private static final String CREATE_TABLE_EXPENSES =
-            "CREATE TABLE " + TABLE_EXPENSES + "("
-                    + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
-                    + COLUMN_CATEGORY + " TEXT,"
-                    + COLUMN_NOTE + " TEXT,"
-                    + COLUMN_AMOUNT + " REAL NOT NULL,"
-                    + COLUMN_DATE + " TEXT,"
-                    + COLUMN_TIMESTAMP + " DATETIME DEFAULT CURRENT_TIMESTAMP"
-                    + ")";
+    // Visible for tests, which use their own database file
+    DBHelper(Context context, String databaseName) {
+        database = AppDatabase.open(context, databaseName);
+        dao = database.expenseDao();
+        categoryCache = new CategoryCache(dao);
+    }
+
+    public CategoryCache getCategoryCache() {
+        return categoryCache;
+    }
 
-    public DBHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    public ExpenseSummaryEngine getSummaryEngine() {
+        return summaryEngine;
     }
 
-    @Override
-    public void onCreate(SQLiteDatabase db) {
-        db.execSQL(CREATE_TABLE_EXPENSES);
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
     }
 
-    @Override
-    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        if (oldVersion < 2) {
-            db.execSQL("ALTER TABLE " + TABLE_EXPENSES + " ADD COLUMN "
-                    + COLUMN_TIMESTAMP + " DATETIME DEFAULT CURRENT_TIMESTAMP");
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void notifyChanged(List<ExpenseChange> changes) {
+        for (ChangeListener listener : changeListeners) {
+            listener.onExpensesChanged(changes);
         }
     }
 
-    public long addExpense(Expense expense) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put(COLUMN_CATEGORY, expense.getCategory());
-        values.put(COLUMN_NOTE, expense.getNote());
-        values.put(COLUMN_AMOUNT, expense.getAmount());
+    ExpenseDao getDao() {
+        return dao;
+    }
 
-        String dateString = DATE_FORMAT.format(expense.getDate());
-        values.put(COLUMN_DATE, dateString);
+    // Visible for tests
+    AppDatabase getDatabase() {
+        return database;
+    }
 
-        long id = db.insert(TABLE_EXPENSES, null, values);
-        db.close();
+    // ✅ WRITES
+    // Every write holds this helper's lock from its transaction through the store update,
+    // summary invalidation and listener call, so the store and the change feed see writes in
+    // the order they committed, whichever thread made them
+
+    public synchronized long addExpense(Expense expense) {
+        long dateMillis = expense.getDate().getTime();
+        // A new category and its first expense commit together
+        long id;
+        try {
+            id = database.runInTransaction(() -> dao.insert(categoryCache.idFor(expense.getCategory()),
+                    expense.getNote(), expense.getAmountPaise(),
+                    ExpenseTimestamps.format(dateMillis, TimeZone.getDefault()), dateMillis));
+        } catch (RuntimeException e) {
+            // A category cached inside the rolled-back transaction may not exist
+            categoryCache.invalidate();
+            throw e;
+        }
+        Expense stored = null;
+        if (id != -1) {
+            stored = new Expense(expense);
+            stored.setId((int) id);
+            stored.setCategory(categoryCache.canonical(expense.getCategory()));
+            stored.clearChanges();
+            // The store first, since summaries read it once they are invalidated
+            putInStore(stored);
+        }
+        summaryEngine.invalidate();
+        if (stored != null) {
+            notifyChanged(Collections.singletonList(ExpenseChange.inserted(stored)));
+        }
         return id;
     }
 
-    public Expense getExpense(long id) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Expense expense = null;
-
-        Cursor cursor = db.query(TABLE_EXPENSES,
-                new String[]{COLUMN_ID, COLUMN_CATEGORY, COLUMN_NOTE, COLUMN_AMOUNT, COLUMN_DATE},
-                COLUMN_ID + "=?",
-                new String[]{String.valueOf(id)}, null, null, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            try {
-                Date date = DATE_FORMAT.parse(cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DATE)));
-                expense = new Expense(
-                        cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_ID)),
-                        cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_AMOUNT)),
-                        cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CATEGORY)),
-                        cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_NOTE)),
-                        date
-                );
-            } catch (Exception e) {
-                e.printStackTrace();
-            } finally {
-                cursor.close();
+    public int addExpenses(Iterable<Expense> expenses) {
+        return addExpenses(expenses, DEFAULT_BULK_CHUNK_SIZE);
+    }
+
+    // Inserts every expense, committing once per chunkSize rows. If the iterable throws, rows in
+    // the current chunk are rolled back while earlier chunks stay committed.
+    // Returns the number of rows inserted.
+    public synchronized int addExpenses(Iterable<Expense> expenses, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        Iterator<Expense> iterator = expenses.iterator();
+        TimeZone zone = TimeZone.getDefault();
+        int inserted = 0;
+        try {
+            while (iterator.hasNext()) {
+                inserted += database.runInTransaction(() -> {
+                    int inChunk = 0;
+                    int insertedInChunk = 0;
+                    while (inChunk < chunkSize && iterator.hasNext()) {
+                        Expense expense = iterator.next();
+                        long dateMillis = expense.getDate().getTime();
+                        if (dao.insert(categoryCache.idFor(expense.getCategory()), expense.getNote(), expense.getAmountPaise(),
+                                ExpenseTimestamps.format(dateMillis, zone), dateMillis) != -1) {
+                            insertedInChunk++;
+                        }
+                        inChunk++;
+                    }
+                    return insertedInChunk;
+                });
             }
+        } catch (RuntimeException e) {
+            categoryCache.invalidate();
+            throw e;
+        } finally {
+            // New ids aren't known here; the next read reloads the store
+            columnStore.invalidate();
+            summaryEngine.invalidate();
+            notifyChanged(null);
         }
-        return expense;
+        return inserted;
+    }
+
+    public Expense getExpense(long id) {
+        List<Expense> expenses = readExpenses(dao.getExpense(id), "getExpense");
+        return expenses.isEmpty() ? null : expenses.get(0);
     }
 
     public List<Expense> getAllExpenses() {
-        List<Expense> expenses = new ArrayList<>();
-        String selectQuery = "SELECT * FROM " + TABLE_EXPENSES + " ORDER BY " + COLUMN_TIMESTAMP + " DESC";
-
-        SQLiteDatabase db = this.getWritableDatabase();
-        Cursor cursor = db.rawQuery(selectQuery, null);
-
-        if (cursor.moveToFirst()) {
-            do {
-                try {
-                    Date date = DATE_FORMAT.parse(cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DATE)));
-                    Expense expense = new Expense(
-                            cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_ID)),
-                            cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_AMOUNT)),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CATEGORY)),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_NOTE)),
-                            date
-                    );
-                    expenses.add(expense);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            } while (cursor.moveToNext());
-        }
+        return readExpenses(dao.getAllExpenses(), "getAllExpenses");
+    }
 
-        cursor.close();
-        db.close();
-        return expenses;
+    // Keyset page of the feed, newest first: rows strictly after (beforeDateMillis, beforeId)
+    // in (date_millis DESC, id DESC) order. Pass Long.MAX_VALUE / Integer.MAX_VALUE for the first page.
+    public List<Expense> getExpensesPage(long beforeDateMillis, int beforeId, int limit) {
+        return readExpenses(dao.getExpensesPage(beforeDateMillis, beforeId, limit), "getExpensesPage");
     }
 
     public int getExpensesCount() {
-        String countQuery = "SELECT * FROM " + TABLE_EXPENSES;
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(countQuery, null);
-        int count = cursor.getCount();
-        cursor.close();
-        return count;
+        return dao.getExpensesCount();
     }
 
-    public int updateExpense(Expense expense) {
-        SQLiteDatabase db = this.getWritableDatabase();
+    // ✅ FULL-TEXT SEARCH
 
-        ContentValues values = new ContentValues();
-        values.put(COLUMN_CATEGORY, expense.getCategory());
-        values.put(COLUMN_NOTE, expense.getNote());
-        values.put(COLUMN_AMOUNT, expense.getAmount());
+    // Every expense with a word in its category or note starting with each word of query,
+    // best match first. Runs against the FTS index, never a scan of expenses.
+    public ExpenseSearchResult searchExpenses(String query) {
+        String match = ExpenseSearch.toMatchQuery(query);
+        if (match == null) {
+            return new ExpenseSearchResult(query, new int[0]);
+        }
+        return new ExpenseSearchResult(query, ExpenseSearch.rank(dao.search(match)));
+    }
+
+    // Up to limit expenses from the result, starting at position offset, in ranked order.
+    // Rows deleted since the search are left out.
+    public List<Expense> getSearchPage(ExpenseSearchResult result, int offset, int limit) {
+        int end = Math.min(result.size(), offset + Math.min(limit, MAX_IDS_PER_QUERY));
+        if (offset < 0 || offset >= end) {
+            return new ArrayList<>();
+        }
+        List<Integer> ids = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) {
+            ids.add(result.idAt(i));
+        }
 
-        String dateString = DATE_FORMAT.format(expense.getDate());
-        values.put(COLUMN_DATE, dateString);
+        Map<Integer, Expense> byId = new HashMap<>();
+        for (Expense expense : readExpenses(dao.getExpensesByIds(ids), "getSearchPage")) {
+            byId.put(expense.getId(), expense);
+        }
+        List<Expense> page = new ArrayList<>(byId.size());
+        for (Integer id : ids) {
+            Expense expense = byId.get(id);
+            if (expense != null) {
+                page.add(expense);
+            }
+        }
+        return page;
+    }
 
-        int rowsAffected = db.update(TABLE_EXPENSES, values, COLUMN_ID + " = ?",
-                new String[]{String.valueOf(expense.getId())});
-        db.close();
+    // Writes only the fields the expense reports as changed, then marks it saved. An expense
+    // with no changes is not written at all and 0 is returned, as for a missing row.
+    public synchronized int updateExpense(Expense expense) {
+        if (!expense.hasChanges()) return 0;
+        // The previous row is read in the same transaction, so listeners get an exact before/after
+        Expense[] before = new Expense[1];
+        int rowsAffected;
+        try {
+            rowsAffected = database.runInTransaction(() -> {
+                before[0] = getExpense(expense.getId());
+                if (before[0] == null) return 0;
+                return database.getOpenHelper().getWritableDatabase().update(TABLE_EXPENSES,
+                        SQLiteDatabase.CONFLICT_NONE, changedValues(expense), COLUMN_ID + " = ?",
+                        new Object[]{expense.getId()});
+            });
+        } catch (RuntimeException e) {
+            categoryCache.invalidate();
+            throw e;
+        }
+        if (rowsAffected == 0) return 0;
+
+        // What is stored now: the old row with the changed fields applied
+        Expense stored = new Expense(before[0]);
+        if (expense.isChanged(Expense.FIELD_AMOUNT)) stored.setAmountPaise(expense.getAmountPaise());
+        if (expense.isChanged(Expense.FIELD_CATEGORY)) stored.setCategory(categoryCache.canonical(expense.getCategory()));
+        if (expense.isChanged(Expense.FIELD_NOTE)) stored.setNote(expense.getNote());
+        if (expense.isChanged(Expense.FIELD_DATE)) stored.setDate(expense.getDate());
+        stored.clearChanges();
+        putInStore(stored);
+        // Summaries cover amounts, dates and categories; a note edit leaves them valid
+        if (expense.isChanged(Expense.FIELD_AMOUNT | Expense.FIELD_DATE | Expense.FIELD_CATEGORY)) {
+            summaryEngine.invalidate();
+        }
+        expense.clearChanges();
+        notifyChanged(Collections.singletonList(ExpenseChange.updated(before[0], stored)));
         return rowsAffected;
     }
 
+    // Only the changed columns, so the update triggers (rollup, search index) fire for those alone.
+    // Called inside the update's transaction, since a new category is inserted here.
+    private ContentValues changedValues(Expense expense) {
+        ContentValues values = new ContentValues();
+        if (expense.isChanged(Expense.FIELD_AMOUNT)) {
+            values.put(COLUMN_AMOUNT, expense.getAmountPaise());
+        }
+        if (expense.isChanged(Expense.FIELD_CATEGORY)) {
+            values.put(COLUMN_CATEGORY_ID, categoryCache.idFor(expense.getCategory()));
+        }
+        if (expense.isChanged(Expense.FIELD_NOTE)) {
+            values.put(COLUMN_NOTE, expense.getNote());
+        }
+        if (expense.isChanged(Expense.FIELD_DATE)) {
+            long dateMillis = expense.getDate().getTime();
+            values.put(COLUMN_DATE, ExpenseTimestamps.format(dateMillis, TimeZone.getDefault()));
+            values.put(COLUMN_DATE_MILLIS, dateMillis);
+        }
+        return values;
+    }
+
     public void deleteExpense(Expense expense) {
         deleteExpense(expense.getId());
     }
 
-    public void deleteExpense(int id) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        db.delete(TABLE_EXPENSES, COLUMN_ID + " = ?", new String[]{String.valueOf(id)});
-        db.close();
+    public synchronized void deleteExpense(int id) {
+        Expense before = database.runInTransaction(() -> {
+            Expense existing = getExpense(id);
+            if (existing != null) dao.delete(id);
+            return existing;
+        });
+        columnStore.remove(id);
+        summaryEngine.invalidate();
+        if (before != null) {
+            notifyChanged(Collections.singletonList(ExpenseChange.deleted(before)));
+        }
+    }
+
+    // Deletes every id in a single transaction, MAX_IDS_PER_QUERY ids per statement.
+    // Returns the number of rows deleted.
+    public synchronized int deleteExpenses(int[] ids) {
+        if (ids.length == 0) return 0;
+        List<ExpenseChange> changes = database.runInTransaction(() -> {
+            List<ExpenseChange> deleted = new ArrayList<>(ids.length);
+            for (int from = 0; from < ids.length; from += MAX_IDS_PER_QUERY) {
+                int to = Math.min(ids.length, from + MAX_IDS_PER_QUERY);
+                List<Integer> chunk = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    chunk.add(ids[i]);
+                }
+                // Read what is about to go so listeners can subtract it
+                for (Expense expense : readExpenses(dao.getExpensesByIds(chunk), "deleteExpenses")) {
+                    deleted.add(ExpenseChange.deleted(expense));
+                }
+                dao.deleteAll(chunk);
+            }
+            return deleted;
+        });
+        columnStore.removeAll(ids);
+        summaryEngine.invalidate();
+        if (!changes.isEmpty()) {
+            notifyChanged(changes);
+        }
+        return changes.size();
+    }
+
+    public void close() {
+        database.close();
     }
 
-    public double getTotalExpenses() {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT SUM(" + COLUMN_AMOUNT + ") FROM " + TABLE_EXPENSES, null);
-        double total = 0;
-        if (cursor.moveToFirst()) {
-            total = cursor.getDouble(0);
+    // ✅ EXPORT
+
+    // Rows for ExpenseExporter dated in [startMillis, endMillis), oldest first, limited to the
+    // named categories unless categories is null ("" or null in it for uncategorised). The
+    // caller closes the cursor.
+    public Cursor getExportCursor(long startMillis, long endMillis, Collection<String> categories) {
+        if (categories == null) return dao.getExportRows(startMillis, endMillis);
+        // A name no expense has used can't match anything, so it is left out of the list
+        List<Long> categoryIds = new ArrayList<>(categories.size());
+        for (String category : categories) {
+            Long id = categoryCache.idOf(category);
+            if (id != null) categoryIds.add(id);
         }
-        cursor.close();
-        return total;
+        return dao.getExportRowsForCategories(startMillis, endMillis, categoryIds);
+    }
+
+    // ✅ IN-MEMORY COLUMN STORE
+
+    private void putInStore(Expense stored) {
+        Long categoryId = categoryCache.idOf(stored.getCategory());
+        if (categoryId != null) {
+            columnStore.put(stored, categoryId.intValue());
+        } else {
+            // Only if the category cache was reset under us; reload rather than guess
+            columnStore.invalidate();
+        }
+    }
+
+    // The store, loaded with a single scan on first use, or null if a write landed during the
+    // load, in which case callers answer from the database this time
+    ExpenseColumnStore getColumnStore() {
+        if (columnStore.isLoaded()) return columnStore;
+        int version = columnStore.getVersion();
+        return columnStore.load(readColumns(), version) ? columnStore : null;
+    }
+
+    // Every row but its note, in one scan
+    private ExpenseColumnStore.Builder readColumns() {
+        ExpenseColumnStore.Builder rows = new ExpenseColumnStore.Builder(dao.getExpensesCount());
+        try (Cursor cursor = dao.getColumns()) {
+            int idColumn = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            int categoryColumn = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY_ID);
+            int amountColumn = cursor.getColumnIndexOrThrow(COLUMN_AMOUNT);
+            int dateMillisColumn = cursor.getColumnIndexOrThrow(COLUMN_DATE_MILLIS);
+            while (cursor.moveToNext()) {
+                rows.add(cursor.getInt(idColumn), cursor.getLong(dateMillisColumn),
+                        cursor.getLong(amountColumn), cursor.getInt(categoryColumn));
+            }
+        }
+        return rows;
+    }
+
+    // Notes for the rows the store is about to show, MAX_IDS_PER_QUERY ids per query
+    private Map<Integer, String> loadNotes(List<Integer> ids) {
+        Map<Integer, String> notes = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_QUERY));
+            for (ExpenseDao.NoteRow row : dao.getNotes(chunk)) {
+                notes.put(row.id, row.note);
+            }
+        }
+        return notes;
+    }
+
+    // ✅ TOTALS FROM THE DAILY ROLLUP (one row per day and category, not per expense)
+    // In paise, summed as integers so they are exact however many expenses there are
+
+    public long getTotalExpenses() {
+        return dao.getRollupTotal();
+    }
+
+    public long getTodayTotal() {
+        return getTotalBetween(PeriodRanges.todayRange());
+    }
+
+    public long getThisWeekTotal() {
+        return getTotalBetween(PeriodRanges.thisWeekRange());
+    }
+
+    public long getThisMonthTotal() {
+        return getTotalBetween(PeriodRanges.thisMonthRange());
+    }
+
+    private long getTotalBetween(long[] range) {
+        return dao.getRollupTotalBetween(DailyRollup.epochDay(range[0]), DailyRollup.epochDay(range[1]));
+    }
+
+    // Recomputes the rollup from scratch, e.g. after the device time zone changed
+    public synchronized void rebuildDailyRollup() {
+        DailyRollup.rebuild(database.getOpenHelper().getWritableDatabase());
+    }
+
+    // ✅ CHART DATA FOR THE SUMMARY DETAIL SCREEN
+    // Grouped over the column store in memory. Until it can be loaded they are grouped in SQL,
+    // over the daily rollup wherever whole days will do.
+
+    public SpendingBreakdown getTodayBreakdown() {
+        return getSpendingBreakdown(PeriodRanges.todayRange());
+    }
+
+    public SpendingBreakdown getThisWeekBreakdown() {
+        return getSpendingBreakdown(PeriodRanges.thisWeekRange());
+    }
+
+    public SpendingBreakdown getThisMonthBreakdown() {
+        return getSpendingBreakdown(PeriodRanges.thisMonthRange());
+    }
+
+    // From the first day with any spending to the last, and at least through today
+    public SpendingBreakdown getAllTimeBreakdown() {
+        long[] range = PeriodRanges.todayRange();
+        ExpenseDao.DayRangeRow days = dao.getRollupDayRange();
+        if (days != null && days.firstDay != null) {
+            range[0] = Math.min(range[0], PeriodClock.get().startOfEpochDay(days.firstDay));
+            range[1] = Math.max(range[1], PeriodClock.get().startOfEpochDay(days.lastDay + 1));
+        }
+        return getSpendingBreakdown(range);
+    }
+
+    private SpendingBreakdown getSpendingBreakdown(long[] range) {
+        ExpenseColumnStore store = getColumnStore();
+        if (store != null) {
+            // Holding the store's lock keeps writes out between the grouping passes
+            synchronized (store) {
+                if (store.isLoaded()) {
+                    return getSpendingBreakdown(range, store::categoryTotals, store::dayBuckets, store::timeBuckets);
+                }
+            }
+        }
+        // Both queries run in one transaction so the chart and the breakdown agree
+        return database.runInTransaction(() ->
+                getSpendingBreakdown(range, dao::getCategoryTotals, dao::getDayBuckets, dao::getTimeBuckets));
+    }
+
+    // The same three groupings whether they come from the store or from the DAO
+    private interface Grouping<T> {
+        T group(long start, long end, long bucketSize);
+    }
+
+    private interface CategoryGrouping {
+        List<ExpenseDao.CategoryTotalRow> group(long startDay, long endDay);
+    }
+
+    private SpendingBreakdown getSpendingBreakdown(long[] range, CategoryGrouping categoryTotals,
+                                                   Grouping<List<ExpenseDao.BucketRow>> dayBuckets,
+                                                   Grouping<List<ExpenseDao.BucketRow>> timeBuckets) {
+        long startDay = DailyRollup.epochDay(range[0]);
+        long endDay = DailyRollup.epochDay(range[1]);
+        List<CategoryTotal> categories = new ArrayList<>();
+        for (ExpenseDao.CategoryTotalRow row : categoryTotals.group(startDay, endDay)) {
+            String name = row.categoryId == CategoryCache.NONE ? null : categoryCache.nameOf(row.categoryId);
+            categories.add(new CategoryTotal(name != null ? name : "", row.total, row.count));
+        }
+
+        long days = endDay - startDay;
+        if (days <= 1) {
+            // A single day is split into hours (23 or 25 across a DST change)
+            int buckets = (int) ((range[1] - range[0] + MILLIS_PER_HOUR - 1) / MILLIS_PER_HOUR);
+            long[] starts = new long[buckets];
+            for (int i = 0; i < buckets; i++) {
+                starts[i] = range[0] + i * MILLIS_PER_HOUR;
+            }
+            long[] totals = bucketTotals(timeBuckets.group(range[0], range[1], MILLIS_PER_HOUR), buckets);
+            return new SpendingBreakdown(categories, starts, totals, 0);
+        }
+
+        // Longer periods group several days a point to stay within MAX_SERIES_POINTS
+        int bucketDays = (int) ((days + MAX_SERIES_POINTS - 1) / MAX_SERIES_POINTS);
+        int buckets = (int) ((days + bucketDays - 1) / bucketDays);
+        long[] starts = new long[buckets];
+        PeriodClock clock = PeriodClock.get();
+        for (int i = 0; i < buckets; i++) {
+            starts[i] = clock.startOfEpochDay(startDay + (long) i * bucketDays);
+        }
+        long[] totals = bucketTotals(dayBuckets.group(startDay, endDay, bucketDays), buckets);
+        return new SpendingBreakdown(categories, starts, totals, bucketDays);
+    }
+
+    // Spreads the query's non-empty buckets over every bucket of the series
+    private static long[] bucketTotals(List<ExpenseDao.BucketRow> rows, int buckets) {
+        long[] totals = new long[buckets];
+        for (ExpenseDao.BucketRow row : rows) {
+            if (row.bucket >= 0 && row.bucket < buckets) {
+                totals[row.bucket] += row.total;
+            }
+        }
+        return totals;
+    }
+
+    // ✅ REPORTS
+    // Built by ReportEngine from a copy of the column store's rows, so a report over years of
+    // expenses is spread over every core and writes aren't held up while it runs. Each throws
+    // CancellationException once cancelled returns true.
+
+    // The given number of months, ending with this one
+    public ExpenseReport getMonthlyReport(int months, BooleanSupplier cancelled) {
+        long today = DailyRollup.epochDay(PeriodRanges.todayRange()[0]);
+        long firstDay = LocalDate.ofEpochDay(today).withDayOfMonth(1).minusMonths(months - 1).toEpochDay();
+        return getReport(ExpenseReport.Granularity.MONTH, firstDay, today, cancelled);
+    }
+
+    // Every year from the first with any spending, through this one
+    public ExpenseReport getYearlyReport(BooleanSupplier cancelled) {
+        long today = DailyRollup.epochDay(PeriodRanges.todayRange()[0]);
+        ExpenseDao.DayRangeRow days = dao.getRollupDayRange();
+        long firstDay = days != null && days.firstDay != null ? Math.min(days.firstDay, today) : today;
+        return getReport(ExpenseReport.Granularity.YEAR, firstDay, today, cancelled);
+    }
+
+    private ExpenseReport getReport(ExpenseReport.Granularity granularity, long firstDay, long lastDay,
+                                    BooleanSupplier cancelled) {
+        long[] bounds = ReportEngine.bounds(granularity, firstDay, lastDay);
+        long startDay = bounds[0];
+        long endDay = bounds[bounds.length - 1];
+        ExpenseColumnStore store = getColumnStore();
+        ReportEngine.Columns columns = store != null ? store.reportColumns(startDay, endDay) : null;
+        if (columns == null) {
+            // A write landed during the load; a store of its own holds this scan for the one report
+            ExpenseColumnStore scanned = new ExpenseColumnStore();
+            scanned.load(readColumns(), scanned.getVersion());
+            columns = scanned.reportColumns(startDay, endDay);
+        }
+        return ReportEngine.get().run(columns, granularity, bounds, categoryCache::nameOf, this::getTopNotes, cancelled);
+    }
+
+    // Notes spent on most on local days [startDay, endDay)
+    private List<NoteTotal> getTopNotes(long startDay, long endDay, int limit) {
+        PeriodClock clock = PeriodClock.get();
+        List<NoteTotal> notes = new ArrayList<>();
+        for (ExpenseDao.NoteTotalRow row : dao.getTopNotes(clock.startOfEpochDay(startDay),
+                clock.startOfEpochDay(endDay), limit)) {
+            notes.add(new NoteTotal(row.note, row.total, row.count));
+        }
+        return notes;
     }
 
     // ✅ NEW METHODS FOR FILTERING
+    // Each period is a half-open [start, end) range of local days, the same days the rollup
+    // totals use, and is answered from the in-memory column store; only notes not read yet
+    // are queried.
 
     public List<Expense> getTodayExpenses() {
-        String today = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
-        String query = "SELECT * FROM " + TABLE_EXPENSES + " WHERE date LIKE '" + today + "%' ORDER BY " + COLUMN_TIMESTAMP + " DESC";
-        return getFilteredExpenses(query);
+        return getExpensesOnDays(PeriodRanges.todayRange());
     }
 
     public List<Expense> getThisWeekExpenses() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
-        String startOfWeek = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(calendar.getTime());
-
-        calendar.add(Calendar.DAY_OF_WEEK, 6);
-        String endOfWeek = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(calendar.getTime());
-
-        String query = "SELECT * FROM " + TABLE_EXPENSES + " WHERE date BETWEEN '" + startOfWeek + "' AND '" + endOfWeek + "' ORDER BY " + COLUMN_TIMESTAMP + " DESC";
-        return getFilteredExpenses(query);
+        return getExpensesOnDays(PeriodRanges.thisWeekRange());
     }
 
     public List<Expense> getThisMonthExpenses() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        String startOfMonth = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(calendar.getTime());
+        return getExpensesOnDays(PeriodRanges.thisMonthRange());
+    }
 
-        calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
-        String endOfMonth = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(calendar.getTime());
+    private List<Expense> getExpensesOnDays(long[] range) {
+        long startDay = DailyRollup.epochDay(range[0]);
+        long endDay = DailyRollup.epochDay(range[1]);
+        // The first read since start-up or a bulk import loads the store. If a write lands
+        // meanwhile the load is dropped and this answer comes from the database instead.
+        ExpenseColumnStore store = getColumnStore();
+        List<Expense> expenses = store != null
+                ? store.between(startDay, endDay, categoryCache::nameOf, this::loadNotes)
+                : null;
+        return expenses != null ? expenses : getExpensesBetween(range[0], range[1]);
+    }
 
-        String query = "SELECT * FROM " + TABLE_EXPENSES + " WHERE date BETWEEN '" + startOfMonth + "' AND '" + endOfMonth + "' ORDER BY " + COLUMN_TIMESTAMP + " DESC";
-        return getFilteredExpenses(query);
+    // Expenses dated in [startMillis, endMillis), newest first
+    public List<Expense> getExpensesBetween(long startMillis, long endMillis) {
+        return readExpenses(dao.getExpensesBetween(startMillis, endMillis), "getExpensesBetween");
     }
 
     // ✅ Helper method to reuse parsing and mapping
-    private List<Expense> getFilteredExpenses(String query) {
+    // Maps and closes the cursor; rows with an unreadable date are skipped and logged
+    private List<Expense> readExpenses(Cursor cursor, String source) {
+        return readExpenses(cursor, source, categoryCache);
+    }
+
+    // categories may be null for a cursor with the category as text
+    static List<Expense> readExpenses(Cursor cursor, String source, CategoryCache categories) {
         List<Expense> expenses = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(query, null);
-
-        if (cursor.moveToFirst()) {
-            do {
-                try {
-                    Date date = DATE_FORMAT.parse(cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_DATE)));
-                    Expense expense = new Expense(
-                            cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_ID)),
-                            cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_AMOUNT)),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CATEGORY)),
-                            cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_NOTE)),
-                            date
-                    );
+        try {
+            ExpenseRowMapper mapper = new ExpenseRowMapper(cursor, categories);
+            while (cursor.moveToNext()) {
+                Expense expense = mapper.map(cursor);
+                if (expense != null) {
                     expenses.add(expense);
-                } catch (Exception e) {
-                    e.printStackTrace();
                 }
-            } while (cursor.moveToNext());
+            }
+            mapper.reportParseFailures(source);
+        } finally {
+            cursor.close();
         }
-
-        cursor.close();
         return expenses;
     }
 }
-
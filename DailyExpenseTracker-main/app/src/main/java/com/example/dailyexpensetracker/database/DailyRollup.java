@@ -0,0 +1,121 @@
+package com.example.dailyexpensetracker.database;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.TimeZone;
+
+// Per (local day, category id) count and total of expenses, kept current by triggers on the
+// expenses table so period totals read one row per day instead of one per expense.
+// Days are local epoch days: days since 1970-01-01 in the device time zone.
+final class DailyRollup {
+
+    static final String TABLE = "expense_daily_rollup";
+    static final String COLUMN_DAY = "day";
+    static final String COLUMN_CATEGORY_ID = "category_id";
+    static final String COLUMN_COUNT = "count";
+    static final String COLUMN_TOTAL = "total";
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final String TRIGGER_INSERT = "trg_expenses_rollup_insert";
+    private static final String TRIGGER_UPDATE = "trg_expenses_rollup_update";
+    private static final String TRIGGER_DELETE = "trg_expenses_rollup_delete";
+
+    // Uncategorised expenses are grouped under CategoryCache.NONE since the key columns cannot be NULL
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS " + TABLE + "("
+                    + COLUMN_DAY + " INTEGER NOT NULL,"
+                    + COLUMN_CATEGORY_ID + " INTEGER NOT NULL,"
+                    + COLUMN_COUNT + " INTEGER NOT NULL,"
+                    + COLUMN_TOTAL + " INTEGER NOT NULL,"
+                    + "PRIMARY KEY (" + COLUMN_DAY + ", " + COLUMN_CATEGORY_ID + ")"
+                    + ") WITHOUT ROWID";
+
+    private DailyRollup() {}
+
+    static void create(SupportSQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE);
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TRIGGER_INSERT
+                + " AFTER INSERT ON " + DBHelper.TABLE_EXPENSES + " BEGIN "
+                + add("NEW")
+                + " END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TRIGGER_UPDATE
+                + " AFTER UPDATE OF " + DBHelper.COLUMN_AMOUNT + ", " + DBHelper.COLUMN_CATEGORY_ID
+                + ", " + DBHelper.COLUMN_DATE_MILLIS + " ON " + DBHelper.TABLE_EXPENSES + " BEGIN "
+                + remove("OLD")
+                + add("NEW")
+                + " END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TRIGGER_DELETE
+                + " AFTER DELETE ON " + DBHelper.TABLE_EXPENSES + " BEGIN "
+                + remove("OLD")
+                + " END");
+    }
+
+    // Removes the table and its triggers, e.g. before a migration recreates them in a new shape
+    static void drop(SupportSQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_UPDATE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRIGGER_DELETE);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+    }
+
+    // Recomputes every row from the expenses table, e.g. after the device time zone changed
+    static void rebuild(SupportSQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            db.execSQL("DELETE FROM " + TABLE);
+            db.execSQL("INSERT INTO " + TABLE + " (" + COLUMN_DAY + ", " + COLUMN_CATEGORY_ID + ", "
+                    + COLUMN_COUNT + ", " + COLUMN_TOTAL + ")"
+                    + " SELECT " + dayOf(DBHelper.COLUMN_DATE_MILLIS) + ", "
+                    + categoryOf(DBHelper.COLUMN_CATEGORY_ID) + ", COUNT(*), SUM(" + DBHelper.COLUMN_AMOUNT + ")"
+                    + " FROM " + DBHelper.TABLE_EXPENSES
+                    + " GROUP BY 1, 2");
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Local epoch day of a millisecond instant, matching dayOf() in SQL. Only turns bounds that
+    // came from PeriodClock into rollup keys; what "today" is stays PeriodClock's to decide.
+    static long epochDay(long millis) {
+        return epochDay(millis, TimeZone.getDefault());
+    }
+
+    static long epochDay(long millis, TimeZone zone) {
+        return Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    private static String dayOf(String millisExpression) {
+        return "CAST(julianday(" + millisExpression + " / 1000, 'unixepoch', 'localtime') - 2440587.5 AS INTEGER)";
+    }
+
+    private static String categoryOf(String categoryIdExpression) {
+        return "IFNULL(" + categoryIdExpression + ", " + CategoryCache.NONE + ")";
+    }
+
+    private static String key(String row) {
+        return " WHERE " + COLUMN_DAY + " = " + dayOf(row + "." + DBHelper.COLUMN_DATE_MILLIS)
+                + " AND " + COLUMN_CATEGORY_ID + " = " + categoryOf(row + "." + DBHelper.COLUMN_CATEGORY_ID);
+    }
+
+    private static String add(String row) {
+        return "INSERT OR IGNORE INTO " + TABLE + " (" + COLUMN_DAY + ", " + COLUMN_CATEGORY_ID + ", "
+                + COLUMN_COUNT + ", " + COLUMN_TOTAL + ") VALUES ("
+                + dayOf(row + "." + DBHelper.COLUMN_DATE_MILLIS) + ", "
+                + categoryOf(row + "." + DBHelper.COLUMN_CATEGORY_ID) + ", 0, 0); "
+                + "UPDATE " + TABLE + " SET " + COLUMN_COUNT + " = " + COLUMN_COUNT + " + 1, "
+                + COLUMN_TOTAL + " = " + COLUMN_TOTAL + " + " + row + "." + DBHelper.COLUMN_AMOUNT
+                + key(row) + "; ";
+    }
+
+    private static String remove(String row) {
+        return "UPDATE " + TABLE + " SET " + COLUMN_COUNT + " = " + COLUMN_COUNT + " - 1, "
+                + COLUMN_TOTAL + " = " + COLUMN_TOTAL + " - " + row + "." + DBHelper.COLUMN_AMOUNT
+                + key(row) + "; "
+                + "DELETE FROM " + TABLE + key(row) + " AND " + COLUMN_COUNT + " <= 0; ";
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.dailyexpensetracker.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+// Room's definition of the daily rollup table so DAO queries against it are verified too.
+// Rows are written only by the triggers in DailyRollup.
+@Entity(tableName = DailyRollup.TABLE,
+        primaryKeys = {DailyRollup.COLUMN_DAY, DailyRollup.COLUMN_CATEGORY_ID})
+public class DailyRollupEntity {
+
+    @ColumnInfo(name = DailyRollup.COLUMN_DAY)
+    public long day;
+
+    // CategoryCache.NONE for uncategorised expenses
+    @ColumnInfo(name = DailyRollup.COLUMN_CATEGORY_ID)
+    public long categoryId;
+
+    @ColumnInfo(name = DailyRollup.COLUMN_COUNT)
+    public int count;
+
+    // In paise
+    @ColumnInfo(name = DailyRollup.COLUMN_TOTAL)
+    public long total;
+}
@@ -0,0 +1,216 @@
+package com.example.dailyexpensetracker.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.dailyexpensetracker.utils.Money;
+
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_AMOUNT;
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_CATEGORY;
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_CATEGORY_ID;
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_DATE;
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_DATE_MILLIS;
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_ID;
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_NOTE;
+import static com.example.dailyexpensetracker.database.DBHelper.COLUMN_TIMESTAMP;
+import static com.example.dailyexpensetracker.database.DBHelper.TABLE_EXPENSES;
+
+// Upgrades for every schema the app has shipped. Versions 1-4 were written by the old
+// SQLiteOpenHelper; 5 is the first version Room opens.
+// A migration only ever writes the schema of its own target version: later shapes are left to
+// the migrations that introduce them, so each step stays valid as the entities change.
+final class DatabaseMigrations {
+
+    // Exactly what Room generates for ExpenseEntity; Room refuses to open the table otherwise
+    static final String CREATE_TABLE_EXPENSES =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_EXPENSES + " ("
+                    + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + COLUMN_CATEGORY_ID + " INTEGER, "
+                    + COLUMN_NOTE + " TEXT, "
+                    + COLUMN_AMOUNT + " INTEGER NOT NULL, "
+                    + COLUMN_DATE + " TEXT, "
+                    + COLUMN_TIMESTAMP + " TEXT DEFAULT CURRENT_TIMESTAMP, "
+                    + COLUMN_DATE_MILLIS + " INTEGER NOT NULL, "
+                    + "FOREIGN KEY(" + COLUMN_CATEGORY_ID + ") REFERENCES " + CategoryCache.TABLE
+                    + "(" + CategoryCache.COLUMN_ID + ") ON UPDATE NO ACTION ON DELETE NO ACTION )";
+
+    // Rupees as a double, the amount column before version 8
+    private static final String LEGACY_COLUMN_AMOUNT = "amount";
+
+    // The expenses table as version 7 had it
+    private static final String CREATE_TABLE_EXPENSES_V7 =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_EXPENSES + " ("
+                    + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + COLUMN_CATEGORY_ID + " INTEGER, "
+                    + COLUMN_NOTE + " TEXT, "
+                    + LEGACY_COLUMN_AMOUNT + " REAL NOT NULL, "
+                    + COLUMN_DATE + " TEXT, "
+                    + COLUMN_TIMESTAMP + " TEXT DEFAULT CURRENT_TIMESTAMP, "
+                    + COLUMN_DATE_MILLIS + " INTEGER NOT NULL, "
+                    + "FOREIGN KEY(" + COLUMN_CATEGORY_ID + ") REFERENCES " + CategoryCache.TABLE
+                    + "(" + CategoryCache.COLUMN_ID + ") ON UPDATE NO ACTION ON DELETE NO ACTION )";
+
+    // The expenses table as versions 5 and 6 had it, with the category name on every row
+    private static final String CREATE_TABLE_EXPENSES_V5 =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_EXPENSES + " ("
+                    + COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + COLUMN_CATEGORY + " TEXT, "
+                    + COLUMN_NOTE + " TEXT, "
+                    + LEGACY_COLUMN_AMOUNT + " REAL NOT NULL, "
+                    + COLUMN_DATE + " TEXT, "
+                    + COLUMN_TIMESTAMP + " TEXT DEFAULT CURRENT_TIMESTAMP, "
+                    + COLUMN_DATE_MILLIS + " INTEGER NOT NULL)";
+
+    static final String CREATE_TABLE_CATEGORIES =
+            "CREATE TABLE IF NOT EXISTS " + CategoryCache.TABLE + " ("
+                    + CategoryCache.COLUMN_ID + " INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + CategoryCache.COLUMN_NAME + " TEXT NOT NULL)";
+
+    static final String CREATE_INDEX_CATEGORY_NAME =
+            "CREATE UNIQUE INDEX IF NOT EXISTS " + CategoryCache.INDEX_NAME + " ON " + CategoryCache.TABLE
+                    + " (" + CategoryCache.COLUMN_NAME + ")";
+
+    static final String CREATE_INDEX_CATEGORY_ID =
+            "CREATE INDEX IF NOT EXISTS " + DBHelper.INDEX_CATEGORY_ID + " ON " + TABLE_EXPENSES + " ("
+                    + COLUMN_CATEGORY_ID + ")";
+
+    static final String CREATE_INDEX_DATE_MILLIS =
+            "CREATE INDEX IF NOT EXISTS " + DBHelper.INDEX_DATE_MILLIS + " ON " + TABLE_EXPENSES + " ("
+                    + COLUMN_DATE_MILLIS + ", " + COLUMN_ID + ", " + COLUMN_AMOUNT + ")";
+
+    // The same index over the amount in rupees, as versions 3 to 7 had it
+    static final String CREATE_INDEX_DATE_MILLIS_V3 =
+            "CREATE INDEX IF NOT EXISTS " + DBHelper.INDEX_DATE_MILLIS + " ON " + TABLE_EXPENSES + " ("
+                    + COLUMN_DATE_MILLIS + ", " + COLUMN_ID + ", " + LEGACY_COLUMN_AMOUNT + ")";
+
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // SQLite cannot add a column defaulting to CURRENT_TIMESTAMP; older rows stay NULL
+            // and version 5 puts the default back on the rebuilt table
+            db.execSQL("ALTER TABLE " + TABLE_EXPENSES + " ADD COLUMN " + COLUMN_TIMESTAMP + " DATETIME");
+        }
+    };
+
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE " + TABLE_EXPENSES + " ADD COLUMN " + COLUMN_DATE_MILLIS + " INTEGER");
+            // date was written in local time; rows without one fall back to the UTC insert timestamp
+            db.execSQL("UPDATE " + TABLE_EXPENSES + " SET " + COLUMN_DATE_MILLIS + " = COALESCE("
+                    + "CAST(strftime('%s', " + COLUMN_DATE + ", 'utc') AS INTEGER), "
+                    + "CAST(strftime('%s', " + COLUMN_TIMESTAMP + ") AS INTEGER), 0) * 1000");
+            db.execSQL(CREATE_INDEX_DATE_MILLIS_V3);
+        }
+    };
+
+    // Version 4 added the daily rollup keyed by category name. 7 -> 8 builds it in its current
+    // form and fills it in, so there is nothing worth building here.
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+        }
+    };
+
+    // Rebuilds expenses with the column types Room expects (timestamp TEXT, date_millis NOT NULL),
+    // keeping every row and id. Dropping the old table drops its index and triggers; the index
+    // is recreated here and the rollup triggers by 7 -> 8.
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            String columns = COLUMN_ID + ", " + COLUMN_CATEGORY + ", " + COLUMN_NOTE + ", " + LEGACY_COLUMN_AMOUNT
+                    + ", " + COLUMN_DATE + ", " + COLUMN_TIMESTAMP;
+            db.execSQL(CREATE_TABLE_EXPENSES_V5.replace(" " + TABLE_EXPENSES + " (", " expenses_new ("));
+            db.execSQL("INSERT INTO expenses_new (" + columns + ", " + COLUMN_DATE_MILLIS + ")"
+                    + " SELECT " + columns + ", IFNULL(" + COLUMN_DATE_MILLIS + ", 0) FROM " + TABLE_EXPENSES);
+            // Carry AUTOINCREMENT's high-water mark over so ids of deleted rows are not reused
+            db.execSQL("UPDATE sqlite_sequence SET seq = MAX(seq, IFNULL((SELECT seq FROM sqlite_sequence"
+                    + " WHERE name = '" + TABLE_EXPENSES + "'), 0)) WHERE name = 'expenses_new'");
+            db.execSQL("DROP TABLE " + TABLE_EXPENSES);
+            db.execSQL("ALTER TABLE expenses_new RENAME TO " + TABLE_EXPENSES);
+            db.execSQL(CREATE_INDEX_DATE_MILLIS_V3);
+        }
+    };
+
+    // Version 6 added the full-text index as an external-content table over expenses. 6 -> 7
+    // builds it in its current form, so there is nothing to do here.
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+        }
+    };
+
+    // Moves category names into their own table and points each expense at one by id. Every
+    // distinct name gets an id in order of first use; empty names become NULL. The search index
+    // is rebuilt in its id-based form and the old rollup dropped for 7 -> 8 to rebuild. Ids and
+    // the AUTOINCREMENT high-water mark carry over as in 4 -> 5.
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL(CREATE_TABLE_CATEGORIES);
+            db.execSQL(CREATE_INDEX_CATEGORY_NAME);
+            db.execSQL("INSERT INTO " + CategoryCache.TABLE + " (" + CategoryCache.COLUMN_NAME + ")"
+                    + " SELECT " + COLUMN_CATEGORY + " FROM " + TABLE_EXPENSES
+                    + " WHERE " + COLUMN_CATEGORY + " IS NOT NULL AND " + COLUMN_CATEGORY + " != ''"
+                    + " GROUP BY " + COLUMN_CATEGORY + " ORDER BY MIN(" + COLUMN_ID + ")");
+
+            String columns = COLUMN_ID + ", " + COLUMN_NOTE + ", " + LEGACY_COLUMN_AMOUNT + ", " + COLUMN_DATE
+                    + ", " + COLUMN_TIMESTAMP + ", " + COLUMN_DATE_MILLIS;
+            db.execSQL(CREATE_TABLE_EXPENSES_V7.replace(" " + TABLE_EXPENSES + " (", " expenses_new ("));
+            db.execSQL("INSERT INTO expenses_new (" + columns + ", " + COLUMN_CATEGORY_ID + ")"
+                    + " SELECT e." + columns.replace(", ", ", e.") + ", c." + CategoryCache.COLUMN_ID
+                    + " FROM " + TABLE_EXPENSES + " e LEFT JOIN " + CategoryCache.TABLE + " c"
+                    + " ON c." + CategoryCache.COLUMN_NAME + " = e." + COLUMN_CATEGORY);
+            db.execSQL("UPDATE sqlite_sequence SET seq = MAX(seq, IFNULL((SELECT seq FROM sqlite_sequence"
+                    + " WHERE name = '" + TABLE_EXPENSES + "'), 0)) WHERE name = 'expenses_new'");
+
+            // The old search index and rollup read the category name from expenses
+            db.execSQL("DROP TABLE IF EXISTS " + ExpenseSearch.TABLE);
+            DailyRollup.drop(db);
+            db.execSQL("DROP TABLE " + TABLE_EXPENSES);
+            db.execSQL("ALTER TABLE expenses_new RENAME TO " + TABLE_EXPENSES);
+            db.execSQL(CREATE_INDEX_DATE_MILLIS_V3);
+            db.execSQL(CREATE_INDEX_CATEGORY_ID);
+
+            db.execSQL(ExpenseSearch.CREATE_TABLE);
+            ExpenseSearch.createTriggers(db);
+            db.execSQL(ExpenseSearch.POPULATE);
+        }
+    };
+
+    // Stores amounts as whole paise in an INTEGER column instead of rupees in a REAL, so sums
+    // are exact. Amounts entered in the app have at most two decimals, and a double holds those
+    // to well within half a paisa, so rounding recovers exactly what was typed. Only a value
+    // with more decimals (possible from an old CSV import) is rounded to the nearest paisa.
+    // The rollup is rebuilt with integer totals; the search index keeps its rows and only
+    // needs its triggers back on the new table.
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            String columns = COLUMN_ID + ", " + COLUMN_CATEGORY_ID + ", " + COLUMN_NOTE + ", " + COLUMN_DATE
+                    + ", " + COLUMN_TIMESTAMP + ", " + COLUMN_DATE_MILLIS;
+            db.execSQL(CREATE_TABLE_EXPENSES.replace(" " + TABLE_EXPENSES + " (", " expenses_new ("));
+            db.execSQL("INSERT INTO expenses_new (" + columns + ", " + COLUMN_AMOUNT + ")"
+                    + " SELECT " + columns + ", CAST(ROUND(" + LEGACY_COLUMN_AMOUNT + " * "
+                    + Money.PAISE_PER_RUPEE + ") AS INTEGER) FROM " + TABLE_EXPENSES);
+            db.execSQL("UPDATE sqlite_sequence SET seq = MAX(seq, IFNULL((SELECT seq FROM sqlite_sequence"
+                    + " WHERE name = '" + TABLE_EXPENSES + "'), 0)) WHERE name = 'expenses_new'");
+
+            DailyRollup.drop(db);
+            db.execSQL("DROP TABLE " + TABLE_EXPENSES);
+            db.execSQL("ALTER TABLE expenses_new RENAME TO " + TABLE_EXPENSES);
+            db.execSQL(CREATE_INDEX_DATE_MILLIS);
+            db.execSQL(CREATE_INDEX_CATEGORY_ID);
+
+            DailyRollup.create(db);
+            DailyRollup.rebuild(db);
+            ExpenseSearch.createTriggers(db);
+        }
+    };
+
+    static final Migration[] ALL = {MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6,
+            MIGRATION_6_7, MIGRATION_7_8};
+
+    private DatabaseMigrations() {}
+}
@@ -0,0 +1,456 @@
+package com.example.dailyexpensetracker.database;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.ReportEngine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.function.IntFunction;
+
+// Every expense held in memory as columns: parallel primitive arrays of local epoch day, date,
+// id, amount and category id, sorted by (day, date, id). About 28 bytes a row, against well
+// over 100 for an Expense with its Date and Strings, so the whole table fits even at a
+// million rows. Period filters are two binary searches; summaries and chart data are loops
+// over a slice of long[] and int[] with nothing boxed or allocated per row.
+// Notes are the one column not loaded up front: a row's note is read the first time the row
+// is shown and kept from then on.
+// DBHelper keeps it current on each write; a bulk import empties it and the next read loads
+// it again. Days follow the default time zone and are recomputed when it changes.
+final class ExpenseColumnStore {
+
+    // Reads the notes of the given ids, in one query
+    interface NoteLoader {
+        Map<Integer, String> loadNotes(List<Integer> ids);
+    }
+
+    // Collects rows in any order for load(), e.g. from a single cursor scan
+    static final class Builder {
+        private int size;
+        private int[] ids;
+        private long[] dateMillis;
+        private long[] amounts;
+        private int[] categoryIds;
+
+        Builder(int expectedRows) {
+            int capacity = Math.max(INITIAL_CAPACITY, expectedRows);
+            ids = new int[capacity];
+            dateMillis = new long[capacity];
+            amounts = new long[capacity];
+            categoryIds = new int[capacity];
+        }
+
+        // categoryId is CategoryCache.NONE for no category
+        void add(int id, long millis, long amountPaise, int categoryId) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                dateMillis = Arrays.copyOf(dateMillis, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+            }
+            ids[size] = id;
+            dateMillis[size] = millis;
+            amounts[size] = amountPaise;
+            categoryIds[size] = categoryId;
+            size++;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+    // Marks a note that hasn't been read yet; compared by identity, since a note can be null
+    private static final String NOTE_NOT_LOADED = new String("");
+
+    private int size;
+    private int[] days = new int[INITIAL_CAPACITY];
+    private long[] dateMillis = new long[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private String[] notes = new String[INITIAL_CAPACITY];
+
+    private boolean loaded;
+    // Bumped by every change, so a load read before a write can't overwrite it
+    private int version;
+    private TimeZone zone;
+
+    synchronized int getVersion() {
+        return version;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    // Replaces the contents with the builder's rows, unless the store changed since
+    // expectedVersion was read. Returns whether the load was applied.
+    synchronized boolean load(Builder rows, int expectedVersion) {
+        if (expectedVersion != version) return false;
+        int[] rowDays = new int[rows.size];
+        String[] rowNotes = new String[rows.size];
+        Arrays.fill(rowNotes, NOTE_NOT_LOADED);
+        sortAll(rowDays, rows.dateMillis, rows.ids, rows.amounts, rows.categoryIds, rowNotes,
+                rows.size, TimeZone.getDefault());
+        loaded = true;
+        version++;
+        return true;
+    }
+
+    synchronized void invalidate() {
+        loaded = false;
+        size = 0;
+        notes = new String[INITIAL_CAPACITY];
+        version++;
+    }
+
+    // Adds the expense, or replaces the one with the same id
+    synchronized void put(Expense expense, int categoryId) {
+        version++;
+        if (!loaded) return;
+        checkZone();
+        removeAt(indexOf(expense.getId()));
+
+        long millis = expense.getDate().getTime();
+        int day = (int) DailyRollup.epochDay(millis, zone);
+        int position = insertionPoint(day, millis, expense.getId());
+        ensureCapacity(size + 1);
+        int tail = size - position;
+        System.arraycopy(days, position, days, position + 1, tail);
+        System.arraycopy(dateMillis, position, dateMillis, position + 1, tail);
+        System.arraycopy(ids, position, ids, position + 1, tail);
+        System.arraycopy(amounts, position, amounts, position + 1, tail);
+        System.arraycopy(categoryIds, position, categoryIds, position + 1, tail);
+        System.arraycopy(notes, position, notes, position + 1, tail);
+        days[position] = day;
+        dateMillis[position] = millis;
+        ids[position] = expense.getId();
+        amounts[position] = expense.getAmountPaise();
+        categoryIds[position] = categoryId;
+        notes[position] = expense.getNote();
+        size++;
+    }
+
+    synchronized void remove(int id) {
+        version++;
+        if (!loaded) return;
+        removeAt(indexOf(id));
+    }
+
+    // Drops every listed id in one pass over the arrays
+    synchronized void removeAll(int[] removedIds) {
+        version++;
+        if (!loaded) return;
+        Set<Integer> removed = new HashSet<>(removedIds.length * 2);
+        for (int id : removedIds) {
+            removed.add(id);
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed.contains(ids[i])) continue;
+            days[kept] = days[i];
+            dateMillis[kept] = dateMillis[i];
+            ids[kept] = ids[i];
+            amounts[kept] = amounts[i];
+            categoryIds[kept] = categoryIds[i];
+            notes[kept] = notes[i];
+            kept++;
+        }
+        Arrays.fill(notes, kept, size, null);
+        size = kept;
+    }
+
+    // ✅ FILTERS
+
+    // The expenses on local days [startDay, endDay), newest first like the feed, or null if the
+    // store has not been loaded. Notes not read yet are loaded for the slice in one call.
+    synchronized List<Expense> between(long startDay, long endDay, IntFunction<String> categoryNames,
+                                       NoteLoader noteLoader) {
+        if (!loaded) return null;
+        checkZone();
+        int from = lowerBound(startDay);
+        int to = lowerBound(endDay);
+        loadNotes(from, to, noteLoader);
+        List<Expense> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = to - 1; i >= from; i--) {
+            String category = categoryIds[i] == CategoryCache.NONE ? null : categoryNames.apply(categoryIds[i]);
+            Expense expense = new Expense(ids[i], amounts[i], category, notes[i], new Date(dateMillis[i]));
+            expense.clearChanges();
+            result.add(expense);
+        }
+        return result;
+    }
+
+    private void loadNotes(int from, int to, NoteLoader noteLoader) {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (notes[i] == NOTE_NOT_LOADED) missing.add(ids[i]);
+        }
+        if (missing.isEmpty()) return;
+        Map<Integer, String> loadedNotes = noteLoader.loadNotes(missing);
+        for (int i = from; i < to; i++) {
+            // A row the loader didn't return keeps its marker and is asked for again next time
+            if (notes[i] == NOTE_NOT_LOADED && loadedNotes.containsKey(ids[i])) {
+                notes[i] = loadedNotes.get(ids[i]);
+            }
+        }
+    }
+
+    // ✅ AGGREGATES
+    // Same shapes as the matching ExpenseDao queries, so DBHelper can take either; each
+    // returns null if the store has not been loaded.
+
+    // Expenses dated in [startMillis, endMillis), limited to categoryIds unless that is null
+    synchronized ExpenseDao.SummaryRow summary(long startMillis, long endMillis, int[] categoryIds) {
+        if (!loaded) return null;
+        checkZone();
+        ExpenseDao.SummaryRow row = new ExpenseDao.SummaryRow();
+        int count = 0;
+        long total = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = scanFrom(startMillis), end = scanTo(endMillis); i < end; i++) {
+            if (dateMillis[i] < startMillis || dateMillis[i] >= endMillis) continue;
+            if (categoryIds != null && !contains(categoryIds, this.categoryIds[i])) continue;
+            long amount = amounts[i];
+            count++;
+            total += amount;
+            if (amount < min) min = amount;
+            if (amount > max) max = amount;
+        }
+        row.count = count;
+        row.total = total;
+        row.min = count == 0 ? 0 : min;
+        row.max = count == 0 ? 0 : max;
+        return row;
+    }
+
+    // Spending per category on local days [startDay, endDay), largest first
+    synchronized List<ExpenseDao.CategoryTotalRow> categoryTotals(long startDay, long endDay) {
+        if (!loaded) return null;
+        checkZone();
+        int from = lowerBound(startDay);
+        int to = lowerBound(endDay);
+        // Category ids are small and dense, so they index the totals directly
+        int maxCategory = 0;
+        for (int i = from; i < to; i++) {
+            maxCategory = Math.max(maxCategory, categoryIds[i]);
+        }
+        long[] totals = new long[maxCategory + 1];
+        int[] counts = new int[maxCategory + 1];
+        for (int i = from; i < to; i++) {
+            totals[categoryIds[i]] += amounts[i];
+            counts[categoryIds[i]]++;
+        }
+
+        List<ExpenseDao.CategoryTotalRow> rows = new ArrayList<>();
+        for (int category = 0; category <= maxCategory; category++) {
+            if (counts[category] == 0) continue;
+            ExpenseDao.CategoryTotalRow row = new ExpenseDao.CategoryTotalRow();
+            row.categoryId = category;
+            row.total = totals[category];
+            row.count = counts[category];
+            rows.add(row);
+        }
+        rows.sort((a, b) -> Long.compare(b.total, a.total));
+        return rows;
+    }
+
+    // Total per run of bucketDays days counted from startDay; buckets with no spending are absent
+    synchronized List<ExpenseDao.BucketRow> dayBuckets(long startDay, long endDay, long bucketDays) {
+        if (!loaded) return null;
+        checkZone();
+        int from = lowerBound(startDay);
+        int to = lowerBound(endDay);
+        List<ExpenseDao.BucketRow> rows = new ArrayList<>();
+        ExpenseDao.BucketRow current = null;
+        for (int i = from; i < to; i++) {
+            int bucket = (int) ((days[i] - startDay) / bucketDays);
+            if (current == null || current.bucket != bucket) {
+                current = new ExpenseDao.BucketRow();
+                current.bucket = bucket;
+                rows.add(current);
+            }
+            current.total += amounts[i];
+        }
+        return rows;
+    }
+
+    // Same over expenses in [startMillis, endMillis), for splitting a single day into hours
+    synchronized List<ExpenseDao.BucketRow> timeBuckets(long startMillis, long endMillis, long bucketMillis) {
+        if (!loaded) return null;
+        checkZone();
+        List<ExpenseDao.BucketRow> rows = new ArrayList<>();
+        ExpenseDao.BucketRow current = null;
+        for (int i = scanFrom(startMillis), end = scanTo(endMillis); i < end; i++) {
+            if (dateMillis[i] < startMillis || dateMillis[i] >= endMillis) continue;
+            int bucket = (int) ((dateMillis[i] - startMillis) / bucketMillis);
+            if (current == null || current.bucket != bucket) {
+                current = new ExpenseDao.BucketRow();
+                current.bucket = bucket;
+                rows.add(current);
+            }
+            current.total += amounts[i];
+        }
+        return rows;
+    }
+
+    // A copy of the day, amount and category columns for local days [startDay, endDay), for
+    // ReportEngine to read on other threads while writes carry on; null if not loaded
+    synchronized ReportEngine.Columns reportColumns(long startDay, long endDay) {
+        if (!loaded) return null;
+        checkZone();
+        int from = lowerBound(startDay);
+        int to = lowerBound(endDay);
+        return new ReportEngine.Columns(Arrays.copyOfRange(days, from, to), Arrays.copyOfRange(amounts, from, to),
+                Arrays.copyOfRange(categoryIds, from, to), to - from);
+    }
+
+    synchronized int size() {
+        return loaded ? size : 0;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) return true;
+        }
+        return false;
+    }
+
+    // First position whose day is >= day
+    private int lowerBound(long day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Slice of positions that holds every row dated in [startMillis, endMillis). Rows are
+    // ordered by local day first, so the slice is found by day, a day wider on each side for a
+    // zone that turns its clocks back over midnight, and callers still check each row's date.
+    private int scanFrom(long startMillis) {
+        if (startMillis == Long.MIN_VALUE) return 0;
+        return lowerBound(DailyRollup.epochDay(startMillis, zone) - 1);
+    }
+
+    private int scanTo(long endMillis) {
+        if (endMillis == Long.MAX_VALUE) return size;
+        return lowerBound(DailyRollup.epochDay(endMillis, zone) + 2);
+    }
+
+    // Position that keeps (day, dateMillis, id) ascending
+    private int insertionPoint(int day, long millis, int id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(days[mid], dateMillis[mid], ids[mid], day, millis, id) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static int compare(int dayA, long millisA, int idA, int dayB, long millisB, int idB) {
+        if (dayA != dayB) return Integer.compare(dayA, dayB);
+        if (millisA != millisB) return Long.compare(millisA, millisB);
+        return Integer.compare(idA, idB);
+    }
+
+    // Ids are not ordered in the arrays, but a scan of an int[] is cheap next to a query
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    private void removeAt(int position) {
+        if (position < 0) return;
+        int tail = size - position - 1;
+        System.arraycopy(days, position + 1, days, position, tail);
+        System.arraycopy(dateMillis, position + 1, dateMillis, position, tail);
+        System.arraycopy(ids, position + 1, ids, position, tail);
+        System.arraycopy(amounts, position + 1, amounts, position, tail);
+        System.arraycopy(categoryIds, position + 1, categoryIds, position, tail);
+        System.arraycopy(notes, position + 1, notes, position, tail);
+        size--;
+        notes[size] = null;
+    }
+
+    // Day numbers depend on the zone, so a zone change re-keys and re-sorts what is held
+    private void checkZone() {
+        TimeZone current = TimeZone.getDefault();
+        if (!current.getID().equals(zone.getID())) {
+            sortAll(new int[size], Arrays.copyOf(dateMillis, size), Arrays.copyOf(ids, size),
+                    Arrays.copyOf(amounts, size), Arrays.copyOf(categoryIds, size), Arrays.copyOf(notes, size),
+                    size, current);
+        }
+    }
+
+    // Computes each row's day in newZone and takes the rows as the new contents, sorted.
+    // Rows that arrive in date order (as a load reads them) are only checked, not sorted.
+    private void sortAll(int[] sourceDays, long[] sourceMillis, int[] sourceIds, long[] sourceAmounts,
+                         int[] sourceCategories, String[] sourceNotes, int count, TimeZone newZone) {
+        zone = newZone;
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            sourceDays[i] = (int) DailyRollup.epochDay(sourceMillis[i], zone);
+            if (i > 0 && compare(sourceDays[i - 1], sourceMillis[i - 1], sourceIds[i - 1],
+                    sourceDays[i], sourceMillis[i], sourceIds[i]) > 0) {
+                sorted = false;
+            }
+        }
+
+        int capacity = Math.max(INITIAL_CAPACITY, count + count / 4);
+        days = new int[capacity];
+        dateMillis = new long[capacity];
+        ids = new int[capacity];
+        amounts = new long[capacity];
+        categoryIds = new int[capacity];
+        notes = new String[capacity];
+        if (sorted) {
+            System.arraycopy(sourceDays, 0, days, 0, count);
+            System.arraycopy(sourceMillis, 0, dateMillis, 0, count);
+            System.arraycopy(sourceIds, 0, ids, 0, count);
+            System.arraycopy(sourceAmounts, 0, amounts, 0, count);
+            System.arraycopy(sourceCategories, 0, categoryIds, 0, count);
+            System.arraycopy(sourceNotes, 0, notes, 0, count);
+        } else {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compare(sourceDays[a], sourceMillis[a], sourceIds[a],
+                    sourceDays[b], sourceMillis[b], sourceIds[b]));
+            for (int i = 0; i < count; i++) {
+                int source = order[i];
+                days[i] = sourceDays[source];
+                dateMillis[i] = sourceMillis[source];
+                ids[i] = sourceIds[source];
+                amounts[i] = sourceAmounts[source];
+                categoryIds[i] = sourceCategories[source];
+                notes[i] = sourceNotes[source];
+            }
+        }
+        size = count;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= days.length) return;
+        int capacity = Math.max(needed, days.length + (days.length >> 1));
+        days = Arrays.copyOf(days, capacity);
+        dateMillis = Arrays.copyOf(dateMillis, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        notes = Arrays.copyOf(notes, capacity);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.dailyexpensetracker.database;
+
+import android.database.Cursor;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+// Every query DBHelper runs against expenses and the daily rollup. Room checks them against
+// the entities at compile time and compiles each write statement once per connection.
+// Row queries return a Cursor so DBHelper can map rows through ExpenseRowMapper;
+// callers close it.
+@Dao
+public interface ExpenseDao {
+
+    // ✅ WRITES
+
+    // categoryId is null for no category
+    @Query("INSERT INTO expenses (category_id, note, amount_paise, date, date_millis)"
+            + " VALUES (:categoryId, :note, :amountPaise, :date, :dateMillis)")
+    long insert(Long categoryId, String note, long amountPaise, String date, long dateMillis);
+
+    // Updates are built from just the changed columns, in DBHelper.updateExpense
+
+    @Query("DELETE FROM expenses WHERE id = :id")
+    int delete(int id);
+
+    // At most DBHelper's MAX_IDS_PER_QUERY ids per call
+    @Query("DELETE FROM expenses WHERE id IN (:ids)")
+    int deleteAll(List<Integer> ids);
+
+    // ✅ ROWS
+
+    @Query("SELECT id, category_id, note, amount_paise, date, date_millis FROM expenses WHERE id = :id")
+    Cursor getExpense(long id);
+
+    @Query("SELECT * FROM expenses ORDER BY timestamp DESC")
+    Cursor getAllExpenses();
+
+    // Keyset page: rows strictly after (beforeDateMillis, beforeId) in feed order
+    @Query("SELECT * FROM expenses"
+            + " WHERE date_millis <= :beforeDateMillis AND (date_millis < :beforeDateMillis OR id < :beforeId)"
+            + " ORDER BY date_millis DESC, id DESC LIMIT :limit")
+    Cursor getExpensesPage(long beforeDateMillis, int beforeId, int limit);
+
+    @Query("SELECT * FROM expenses WHERE date_millis >= :startMillis AND date_millis < :endMillis"
+            + " ORDER BY date_millis DESC, id DESC")
+    Cursor getExpensesBetween(long startMillis, long endMillis);
+
+    @Query("SELECT * FROM expenses WHERE id IN (:ids)")
+    Cursor getExpensesByIds(List<Integer> ids);
+
+    @Query("SELECT COUNT(*) FROM expenses")
+    int getExpensesCount();
+
+    // ✅ COLUMN STORE
+    // ExpenseColumnStore loads everything but notes in one scan, in date order so it needn't
+    // sort, and reads notes later for just the rows it shows
+
+    @Query("SELECT id, IFNULL(category_id, 0) AS category_id, amount_paise, date_millis FROM expenses"
+            + " ORDER BY date_millis, id")
+    Cursor getColumns();
+
+    // At most DBHelper's MAX_IDS_PER_QUERY ids per call
+    @Query("SELECT id, note FROM expenses WHERE id IN (:ids)")
+    List<NoteRow> getNotes(List<Integer> ids);
+
+    // ✅ EXPORT
+    // Expenses dated in [startMillis, endMillis), oldest first, read forward once by
+    // ExpenseExporter; the date index gives the range and the order
+
+    @Query("SELECT date_millis, category_id, note, amount_paise FROM expenses"
+            + " WHERE date_millis >= :startMillis AND date_millis < :endMillis ORDER BY date_millis, id")
+    Cursor getExportRows(long startMillis, long endMillis);
+
+    // Uncategorised expenses match CategoryCache.NONE (0)
+    @Query("SELECT date_millis, category_id, note, amount_paise FROM expenses"
+            + " WHERE date_millis >= :startMillis AND date_millis < :endMillis"
+            + " AND IFNULL(category_id, 0) IN (:categoryIds) ORDER BY date_millis, id")
+    Cursor getExportRowsForCategories(long startMillis, long endMillis, List<Long> categoryIds);
+
+    // ✅ SEARCH
+
+    // Every row matching an FTS query, unordered; ExpenseSearch ranks them from matchInfo
+    @Query("SELECT expenses.id AS id, expenses.date_millis AS dateMillis,"
+            + " matchinfo(expenses_fts, 'pcx') AS matchInfo"
+            + " FROM expenses_fts JOIN expenses ON expenses.id = expenses_fts.rowid"
+            + " WHERE expenses_fts MATCH :match")
+    List<SearchHit> search(String match);
+
+    // ✅ AGGREGATES
+    // Amounts are whole paise, so SQLite sums them as integers, exactly
+
+    @Query("SELECT COUNT(*) AS count, IFNULL(SUM(amount_paise), 0) AS total,"
+            + " IFNULL(MIN(amount_paise), 0) AS min, IFNULL(MAX(amount_paise), 0) AS max"
+            + " FROM expenses WHERE date_millis >= :startMillis AND date_millis < :endMillis")
+    SummaryRow getSummary(long startMillis, long endMillis);
+
+    // Uncategorised expenses match CategoryCache.NONE (0)
+    @Query("SELECT COUNT(*) AS count, IFNULL(SUM(amount_paise), 0) AS total,"
+            + " IFNULL(MIN(amount_paise), 0) AS min, IFNULL(MAX(amount_paise), 0) AS max"
+            + " FROM expenses WHERE date_millis >= :startMillis AND date_millis < :endMillis"
+            + " AND IFNULL(category_id, 0) IN (:categoryIds)")
+    SummaryRow getSummaryForCategories(long startMillis, long endMillis, List<Long> categoryIds);
+
+    @Query("SELECT IFNULL(SUM(total), 0) FROM expense_daily_rollup")
+    long getRollupTotal();
+
+    // Local epoch days in [startDay, endDay)
+    @Query("SELECT IFNULL(SUM(total), 0) FROM expense_daily_rollup WHERE day >= :startDay AND day < :endDay")
+    long getRollupTotalBetween(long startDay, long endDay);
+
+    // ✅ CHART AGGREGATES
+    // Local epoch days in [startDay, endDay); read from the rollup, one row per day and category
+
+    @Query("SELECT category_id AS categoryId, SUM(total) AS total, SUM(count) AS count FROM expense_daily_rollup"
+            + " WHERE day >= :startDay AND day < :endDay GROUP BY category_id ORDER BY total DESC")
+    List<CategoryTotalRow> getCategoryTotals(long startDay, long endDay);
+
+    // Total per run of bucketDays days counted from startDay; buckets with no spending are absent
+    @Query("SELECT (day - :startDay) / :bucketDays AS bucket, SUM(total) AS total FROM expense_daily_rollup"
+            + " WHERE day >= :startDay AND day < :endDay GROUP BY bucket ORDER BY bucket")
+    List<BucketRow> getDayBuckets(long startDay, long endDay, long bucketDays);
+
+    // Same over expenses in [startMillis, endMillis), for splitting a single day into hours
+    @Query("SELECT (date_millis - :startMillis) / :bucketMillis AS bucket, SUM(amount_paise) AS total FROM expenses"
+            + " WHERE date_millis >= :startMillis AND date_millis < :endMillis GROUP BY bucket ORDER BY bucket")
+    List<BucketRow> getTimeBuckets(long startMillis, long endMillis, long bucketMillis);
+
+    // Notes spent on most in [startMillis, endMillis), for reports; blank notes are left out
+    @Query("SELECT note, SUM(amount_paise) AS total, COUNT(*) AS count FROM expenses"
+            + " WHERE date_millis >= :startMillis AND date_millis < :endMillis AND TRIM(IFNULL(note, '')) != ''"
+            + " GROUP BY note ORDER BY total DESC LIMIT :limit")
+    List<NoteTotalRow> getTopNotes(long startMillis, long endMillis, int limit);
+
+    // First and last day with any spending; both null when there are no expenses
+    @Query("SELECT MIN(day) AS firstDay, MAX(day) AS lastDay FROM expense_daily_rollup")
+    DayRangeRow getRollupDayRange();
+
+    // ✅ CATEGORIES
+
+    @Query("SELECT id, name FROM categories")
+    List<CategoryRow> getCategories();
+
+    // New row id, or -1 if the name is already there
+    @Query("INSERT OR IGNORE INTO categories (name) VALUES (:name)")
+    long insertCategory(String name);
+
+    @Query("SELECT id FROM categories WHERE name = :name")
+    long getCategoryId(String name);
+
+    class CategoryRow {
+        public long id;
+        public String name;
+    }
+
+    class SearchHit {
+        public int id;
+        public long dateMillis;
+        public byte[] matchInfo;
+    }
+
+    class NoteRow {
+        public int id;
+        public String note;
+    }
+
+    class CategoryTotalRow {
+        // CategoryCache.NONE for uncategorised expenses
+        public long categoryId;
+        public long total;
+        public int count;
+    }
+
+    class NoteTotalRow {
+        public String note;
+        public long total;
+        public int count;
+    }
+
+    class DayRangeRow {
+        public Long firstDay;
+        public Long lastDay;
+    }
+
+    class BucketRow {
+        public int bucket;
+        public long total;
+    }
+
+    class SummaryRow {
+        public int count;
+        public long total;
+        public long min;
+        public long max;
+    }
+}
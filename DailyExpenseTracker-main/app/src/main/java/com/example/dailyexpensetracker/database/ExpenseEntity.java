@@ -0,0 +1,51 @@
+package com.example.dailyexpensetracker.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Room's definition of the expenses table. Room checks the table on disk against it when the
+// database opens, and checks every DAO query against it at compile time.
+// Rows are read into Expense through ExpenseRowMapper rather than through this class.
+// The foreign key documents the link to categories; categories are never deleted.
+@Entity(
+        tableName = DBHelper.TABLE_EXPENSES,
+        foreignKeys = {@ForeignKey(entity = CategoryEntity.class,
+                parentColumns = CategoryCache.COLUMN_ID, childColumns = DBHelper.COLUMN_CATEGORY_ID)},
+        indices = {
+                // Period filters scan this index by range; id keeps ties in a stable order and
+                // the amount lets period totals be answered from the index alone.
+                @Index(name = DBHelper.INDEX_DATE_MILLIS,
+                        value = {DBHelper.COLUMN_DATE_MILLIS, DBHelper.COLUMN_ID, DBHelper.COLUMN_AMOUNT}),
+                @Index(name = DBHelper.INDEX_CATEGORY_ID, value = {DBHelper.COLUMN_CATEGORY_ID})
+        })
+public class ExpenseEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = DBHelper.COLUMN_ID)
+    public int id;
+
+    // NULL when uncategorised
+    @ColumnInfo(name = DBHelper.COLUMN_CATEGORY_ID)
+    public Long categoryId;
+
+    @ColumnInfo(name = DBHelper.COLUMN_NOTE)
+    public String note;
+
+    // Whole paise, so sums are exact
+    @ColumnInfo(name = DBHelper.COLUMN_AMOUNT)
+    public long amountPaise;
+
+    // Local date and time as yyyy-MM-dd HH:mm:ss, kept for older readers of the file
+    @ColumnInfo(name = DBHelper.COLUMN_DATE)
+    public String date;
+
+    // When the row was inserted, in UTC
+    @ColumnInfo(name = DBHelper.COLUMN_TIMESTAMP, defaultValue = "CURRENT_TIMESTAMP")
+    public String timestamp;
+
+    @ColumnInfo(name = DBHelper.COLUMN_DATE_MILLIS)
+    public long dateMillis;
+}
@@ -0,0 +1,20 @@
+package com.example.dailyexpensetracker.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+// Full-text index over the category name and note of every expense, keyed by docid = expense
+// id. expenses holds a category id rather than the name, so the index keeps its own copy of
+// the text; the triggers in ExpenseSearch keep it in step with expenses.
+@Fts4(tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = ExpenseSearch.TABLE)
+public class ExpenseFtsEntity {
+
+    @ColumnInfo(name = DBHelper.COLUMN_CATEGORY)
+    public String category;
+
+    @ColumnInfo(name = DBHelper.COLUMN_NOTE)
+    public String note;
+}
@@ -0,0 +1,76 @@
+package com.example.dailyexpensetracker.database;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import com.example.dailyexpensetracker.models.Expense;
+
+// Maps rows of an expenses cursor to Expense objects. Column indexes are resolved once when
+// the mapper is created, so create one per cursor and reuse it for every row.
+// The mapping itself is ExpenseRowReader in :core; this resolves the columns by name, lets the
+// reader see the cursor, and logs what couldn't be read.
+public class ExpenseRowMapper {
+
+    private static final String TAG = "ExpenseRowMapper";
+
+    private final ExpenseRowReader reader;
+    private final CursorRow row = new CursorRow();
+
+    // categories may be null when the cursor has the category as text
+    public ExpenseRowMapper(Cursor cursor, CategoryCache categories) {
+        int categoryIndex = cursor.getColumnIndex(DBHelper.COLUMN_CATEGORY);
+        reader = new ExpenseRowReader(
+                cursor.getColumnIndexOrThrow(DBHelper.COLUMN_ID),
+                cursor.getColumnIndexOrThrow(DBHelper.COLUMN_AMOUNT),
+                categoryIndex,
+                categoryIndex < 0 ? cursor.getColumnIndexOrThrow(DBHelper.COLUMN_CATEGORY_ID) : ExpenseRowReader.ABSENT,
+                cursor.getColumnIndexOrThrow(DBHelper.COLUMN_NOTE),
+                cursor.getColumnIndex(DBHelper.COLUMN_DATE),
+                cursor.getColumnIndex(DBHelper.COLUMN_DATE_MILLIS),
+                categories != null ? categories::nameOf : null);
+    }
+
+    // The expense at the cursor's current row, or null if its date cannot be read
+    public Expense map(Cursor cursor) {
+        row.cursor = cursor;
+        return reader.read(row);
+    }
+
+    // Rows map() returned null for
+    public int getParseFailures() {
+        return reader.getParseFailures();
+    }
+
+    // Logs skipped rows once per query rather than once per row
+    public void reportParseFailures(String source) {
+        int parseFailures = reader.getParseFailures();
+        if (parseFailures > 0) {
+            Log.w(TAG, source + ": skipped " + parseFailures + " expense(s) with an unreadable date");
+        }
+    }
+
+    // One per mapper, pointed at the cursor on each map() so no row allocates a wrapper
+    private static final class CursorRow implements ExpenseRowReader.Row {
+        Cursor cursor;
+
+        @Override
+        public boolean isNull(int column) {
+            return cursor.isNull(column);
+        }
+
+        @Override
+        public int getInt(int column) {
+            return cursor.getInt(column);
+        }
+
+        @Override
+        public long getLong(int column) {
+            return cursor.getLong(column);
+        }
+
+        @Override
+        public String getString(int column) {
+            return cursor.getString(column);
+        }
+    }
+}
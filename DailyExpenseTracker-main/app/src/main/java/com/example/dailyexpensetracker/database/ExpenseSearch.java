@@ -0,0 +1,138 @@
+package com.example.dailyexpensetracker.database;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Query building and ranking for full-text search over expenses_fts (see ExpenseFtsEntity).
+// FTS4 has no built-in ranking, so matches come back with their matchinfo and are scored here.
+final class ExpenseSearch {
+
+    static final String TABLE = "expenses_fts";
+
+    // Exactly what Room generates for ExpenseFtsEntity, so a migrated database validates
+    static final String CREATE_TABLE = "CREATE VIRTUAL TABLE IF NOT EXISTS `" + TABLE + "` USING FTS4("
+            + "`" + DBHelper.COLUMN_CATEGORY + "` TEXT, `" + DBHelper.COLUMN_NOTE + "` TEXT, "
+            + "tokenize=unicode61)";
+
+    private static final String TRIGGER_INSERT = "trg_expenses_fts_insert";
+    private static final String TRIGGER_UPDATE = "trg_expenses_fts_update";
+    private static final String TRIGGER_DELETE = "trg_expenses_fts_delete";
+
+    // Fills the index from expenses, e.g. right after the table is created
+    static final String POPULATE = "INSERT INTO `" + TABLE + "`(`docid`, `" + DBHelper.COLUMN_CATEGORY
+            + "`, `" + DBHelper.COLUMN_NOTE + "`) SELECT e." + DBHelper.COLUMN_ID + ", c." + CategoryCache.COLUMN_NAME
+            + ", e." + DBHelper.COLUMN_NOTE + " FROM " + DBHelper.TABLE_EXPENSES + " e LEFT JOIN "
+            + CategoryCache.TABLE + " c ON c." + CategoryCache.COLUMN_ID + " = e." + DBHelper.COLUMN_CATEGORY_ID;
+
+    // Matches in the category count for more than matches in the note
+    private static final double[] COLUMN_WEIGHTS = {2.0, 1.0};
+    private static final int MAX_TERMS = 8;
+
+    private ExpenseSearch() {}
+
+    // Turns what the user typed into an FTS query where every word must match the start of a
+    // word in the category or note ("gro tax" finds "Groceries, taxi home").
+    // Punctuation is dropped so user input can never be read as FTS syntax.
+    // Returns null if there is nothing to search for.
+    static String toMatchQuery(String input) {
+        if (input == null) return null;
+        StringBuilder query = new StringBuilder();
+        int terms = 0;
+        int i = 0;
+        while (i < input.length() && terms < MAX_TERMS) {
+            int codePoint = input.codePointAt(i);
+            if (!Character.isLetterOrDigit(codePoint)) {
+                i += Character.charCount(codePoint);
+                continue;
+            }
+            int start = i;
+            while (i < input.length() && Character.isLetterOrDigit(input.codePointAt(i))) {
+                i += Character.charCount(input.codePointAt(i));
+            }
+            if (terms++ > 0) query.append(' ');
+            // Lower case keeps words like "or" and "near" from being read as operators
+            query.append(input.substring(start, i).toLowerCase(Locale.ROOT)).append('*');
+        }
+        return terms == 0 ? null : query.toString();
+    }
+
+    // Expense ids of hits, best first: by score, then newest, then highest id
+    static int[] rank(List<ExpenseDao.SearchHit> hits) {
+        int count = hits.size();
+        double[] scores = new double[count];
+        List<Integer> order = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(hits.get(i).matchInfo);
+            order.add(i);
+        }
+        order.sort((a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            if (byScore != 0) return byScore;
+            ExpenseDao.SearchHit first = hits.get(a);
+            ExpenseDao.SearchHit second = hits.get(b);
+            int byDate = Long.compare(second.dateMillis, first.dateMillis);
+            return byDate != 0 ? byDate : Integer.compare(second.id, first.id);
+        });
+
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = hits.get(order.get(i)).id;
+        }
+        return ids;
+    }
+
+    // matchinfo(..., 'pcx'): phrase count, column count, then for every phrase and column the
+    // hits in this row, hits in all rows and rows with a hit, as native-order 32-bit ints.
+    // Each hit counts in inverse proportion to how common the phrase is in that column.
+    static double score(byte[] matchInfo) {
+        if (matchInfo == null || matchInfo.length < 8) return 0;
+        IntBuffer info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = info.get(0);
+        int columns = info.get(1);
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int base = 2 + (phrase * columns + column) * 3;
+                int hitsInRow = info.get(base);
+                int hitsInAllRows = info.get(base + 1);
+                if (hitsInRow > 0 && hitsInAllRows > 0) {
+                    double weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1.0;
+                    score += weight * hitsInRow / hitsInAllRows;
+                }
+            }
+        }
+        return score;
+    }
+
+    // Keeps the index in step with expenses. The update trigger only fires when the category
+    // or note is written, so an amount or date edit leaves the index alone.
+    static void createTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TRIGGER_INSERT
+                + " AFTER INSERT ON " + DBHelper.TABLE_EXPENSES + " BEGIN "
+                + "INSERT INTO `" + TABLE + "`(`docid`, `" + DBHelper.COLUMN_CATEGORY + "`, `" + DBHelper.COLUMN_NOTE
+                + "`) VALUES (NEW." + DBHelper.COLUMN_ID + ", " + categoryName("NEW") + ", NEW." + DBHelper.COLUMN_NOTE + "); "
+                + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TRIGGER_UPDATE
+                + " AFTER UPDATE OF " + DBHelper.COLUMN_CATEGORY_ID + ", " + DBHelper.COLUMN_NOTE
+                + " ON " + DBHelper.TABLE_EXPENSES + " BEGIN "
+                + "UPDATE `" + TABLE + "` SET `" + DBHelper.COLUMN_CATEGORY + "` = " + categoryName("NEW")
+                + ", `" + DBHelper.COLUMN_NOTE + "` = NEW." + DBHelper.COLUMN_NOTE
+                + " WHERE `docid` = NEW." + DBHelper.COLUMN_ID + "; "
+                + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + TRIGGER_DELETE
+                + " AFTER DELETE ON " + DBHelper.TABLE_EXPENSES + " BEGIN "
+                + "DELETE FROM `" + TABLE + "` WHERE `docid` = OLD." + DBHelper.COLUMN_ID + "; "
+                + "END");
+    }
+
+    private static String categoryName(String row) {
+        return "(SELECT " + CategoryCache.COLUMN_NAME + " FROM " + CategoryCache.TABLE
+                + " WHERE " + CategoryCache.COLUMN_ID + " = " + row + "." + DBHelper.COLUMN_CATEGORY_ID + ")";
+    }
+}
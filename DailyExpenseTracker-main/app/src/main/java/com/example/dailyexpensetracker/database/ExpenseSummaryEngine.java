@@ -0,0 +1,150 @@
+package com.example.dailyexpensetracker.database;
+
+import com.example.dailyexpensetracker.models.ExpenseSummary;
+import com.example.dailyexpensetracker.utils.PeriodRanges;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Count, total, min, max and average of the expenses in a date range and (optionally) a set of
+// categories, each answered by one pass over DBHelper's column store, or by a single aggregate
+// query until that is loaded. Results are cached until DBHelper performs a write, so repeated
+// reads of the same figures never touch the database.
+public class ExpenseSummaryEngine {
+
+    private final DBHelper dbHelper;
+    private final Map<Key, ExpenseSummary> cache = new ConcurrentHashMap<>();
+    private long generation;
+
+    ExpenseSummaryEngine(DBHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    public ExpenseSummary getAllTimeSummary() {
+        return getSummary(Long.MIN_VALUE, Long.MAX_VALUE, null);
+    }
+
+    public ExpenseSummary getTodaySummary() {
+        long[] range = PeriodRanges.todayRange();
+        return getSummary(range[0], range[1], null);
+    }
+
+    public ExpenseSummary getThisWeekSummary() {
+        long[] range = PeriodRanges.thisWeekRange();
+        return getSummary(range[0], range[1], null);
+    }
+
+    public ExpenseSummary getThisMonthSummary() {
+        long[] range = PeriodRanges.thisMonthRange();
+        return getSummary(range[0], range[1], null);
+    }
+
+    // Expenses dated in [startMillis, endMillis); null or empty categories means all of them.
+    // Uncategorised expenses match the category "" or null, as Expense.getCategory returns it.
+    public ExpenseSummary getSummary(long startMillis, long endMillis, Collection<String> categories) {
+        Key key = new Key(startMillis, endMillis, categories);
+        ExpenseSummary cached = cache.get(key);
+        if (cached != null) return cached;
+
+        long queriedAt;
+        synchronized (this) {
+            queriedAt = generation;
+        }
+        ExpenseSummary summary = query(key);
+        synchronized (this) {
+            // A write that landed while we were querying may not be reflected; don't keep it
+            if (queriedAt == generation) {
+                cache.put(key, summary);
+            }
+        }
+        return summary;
+    }
+
+    // Called by DBHelper after every write
+    synchronized void invalidate() {
+        generation++;
+        cache.clear();
+    }
+
+    private ExpenseSummary query(Key key) {
+        List<Long> categoryIds = null;
+        if (!key.categories.isEmpty()) {
+            // Filtered by id; a name no expense has used can't match anything
+            categoryIds = new ArrayList<>(key.categories.size());
+            for (String category : key.categories) {
+                Long id = dbHelper.getCategoryCache().idOf(category);
+                if (id != null) categoryIds.add(id);
+            }
+            if (categoryIds.isEmpty()) return ExpenseSummary.EMPTY;
+        }
+
+        // One pass over the in-memory columns when they are loaded; otherwise one query
+        ExpenseColumnStore store = dbHelper.getColumnStore();
+        ExpenseDao.SummaryRow row = store != null
+                ? store.summary(key.startMillis, key.endMillis, toIntArray(categoryIds))
+                : null;
+        if (row == null) {
+            row = categoryIds == null
+                    ? dbHelper.getDao().getSummary(key.startMillis, key.endMillis)
+                    : dbHelper.getDao().getSummaryForCategories(key.startMillis, key.endMillis, categoryIds);
+        }
+        if (row == null || row.count == 0) {
+            return ExpenseSummary.EMPTY;
+        }
+        return new ExpenseSummary(row.count, row.total, row.min, row.max);
+    }
+
+    private static int[] toIntArray(List<Long> values) {
+        if (values == null) return null;
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i).intValue();
+        }
+        return array;
+    }
+
+    private static final class Key {
+        final long startMillis;
+        final long endMillis;
+        final List<String> categories;
+
+        Key(long startMillis, long endMillis, Collection<String> categories) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            // Sorted so the same set in a different order shares a cache entry
+            this.categories = categories == null || categories.isEmpty()
+                    ? Collections.emptyList()
+                    : Collections.unmodifiableList(new ArrayList<>(sorted(categories)));
+        }
+
+        // TreeSet can't hold null, so no category goes in as ""
+        private static TreeSet<String> sorted(Collection<String> categories) {
+            TreeSet<String> sorted = new TreeSet<>();
+            for (String category : categories) {
+                sorted.add(category == null ? "" : category);
+            }
+            return sorted;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return startMillis == key.startMillis
+                    && endMillis == key.endMillis
+                    && categories.equals(key.categories);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(startMillis, endMillis, categories);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.dailyexpensetracker.io;
+
+import com.example.dailyexpensetracker.database.DBHelper;
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+import com.example.dailyexpensetracker.utils.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.TimeZone;
+
+// Imports expenses from CSV one record at a time, feeding rows straight into DBHelper.addExpenses
+// so the file is never held in memory. Columns are found by a header row
+// (date, category, note, amount in any order); without one that order is assumed. Reads what
+// ExpenseExporter writes, including quoted notes over several lines (a line break comes back
+// as '\n'). Dates are yyyy-MM-dd or yyyy-MM-dd HH:mm:ss. Not thread-safe; use one importer
+// per import.
+public class CsvExpenseImporter {
+
+    public interface Listener {
+        // Called about every PROGRESS_INTERVAL lines and once at the end
+        void onProgress(long linesRead, int accepted);
+
+        // lineNumber is the line the row starts on; line is the whole row, which may span lines
+        void onRowRejected(long lineNumber, String line, String reason);
+    }
+
+    public static class Result {
+        public final long linesRead;
+        public final int imported;
+        public final int rejected;
+
+        Result(long linesRead, int imported, int rejected) {
+            this.linesRead = linesRead;
+            this.imported = imported;
+            this.rejected = rejected;
+        }
+    }
+
+    private static final int PROGRESS_INTERVAL = 500;
+
+    private static final String COLUMN_DATE = "date";
+    private static final String COLUMN_CATEGORY = "category";
+    private static final String COLUMN_NOTE = "note";
+    private static final String COLUMN_AMOUNT = "amount";
+
+    private final DBHelper dbHelper;
+    private final int chunkSize;
+
+    private final TimeZone zone = TimeZone.getDefault();
+
+    public CsvExpenseImporter(DBHelper dbHelper) {
+        this(dbHelper, DBHelper.DEFAULT_BULK_CHUNK_SIZE);
+    }
+
+    public CsvExpenseImporter(DBHelper dbHelper, int chunkSize) {
+        this.dbHelper = dbHelper;
+        this.chunkSize = chunkSize;
+    }
+
+    public Result importFrom(Reader source, Listener listener) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader
+                ? (BufferedReader) source : new BufferedReader(source);
+        RowIterator rows = new RowIterator(new CsvRecordReader(reader), listener);
+        int imported;
+        try {
+            imported = dbHelper.addExpenses(() -> rows, chunkSize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (listener != null) {
+            listener.onProgress(rows.records.getLineNumber(), rows.accepted);
+        }
+        return new Result(rows.records.getLineNumber(), imported, rows.rejected);
+    }
+
+    // Pulls records lazily and yields only the rows that parse; rejects are reported as they are met
+    private class RowIterator implements Iterator<Expense> {
+        private final CsvRecordReader records;
+        private final Listener listener;
+        private List<String> fields;
+
+        private int dateColumn = 0;
+        private int categoryColumn = 1;
+        private int noteColumn = 2;
+        private int amountColumn = 3;
+
+        private long nextProgress = PROGRESS_INTERVAL;
+        private int accepted;
+        private int rejected;
+        private Expense next;
+        private boolean done;
+
+        RowIterator(CsvRecordReader records, Listener listener) {
+            this.records = records;
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = readNext();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Expense next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Expense expense = next;
+            next = null;
+            return expense;
+        }
+
+        private Expense readNext() {
+            while ((fields = readRecord()) != null) {
+                if (listener != null && records.getLineNumber() >= nextProgress) {
+                    listener.onProgress(records.getLineNumber(), accepted);
+                    nextProgress = records.getLineNumber() + PROGRESS_INTERVAL;
+                }
+                String line = records.getText();
+                if (line.trim().isEmpty()) continue;
+
+                if (records.getStartLine() == 1 && readHeader()) continue;
+
+                String error = null;
+                Expense expense = null;
+                try {
+                    expense = toExpense();
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+                if (expense != null) {
+                    accepted++;
+                    return expense;
+                }
+                rejected++;
+                if (listener != null) {
+                    listener.onRowRejected(records.getStartLine(), line, error);
+                }
+            }
+            return null;
+        }
+
+        private List<String> readRecord() {
+            try {
+                return records.next();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Returns true if the current line is a header naming the columns
+        private boolean readHeader() {
+            int date = -1, category = -1, note = -1, amount = -1;
+            for (int i = 0; i < fields.size(); i++) {
+                String name = fields.get(i).trim().toLowerCase(Locale.US);
+                if (name.equals(COLUMN_DATE)) date = i;
+                else if (name.equals(COLUMN_CATEGORY)) category = i;
+                else if (name.equals(COLUMN_NOTE)) note = i;
+                else if (name.equals(COLUMN_AMOUNT)) amount = i;
+            }
+            if (date < 0 || amount < 0) return false;
+            dateColumn = date;
+            categoryColumn = category;
+            noteColumn = note;
+            amountColumn = amount;
+            return true;
+        }
+
+        private Expense toExpense() {
+            String amountText = column(amountColumn);
+            String dateText = column(dateColumn);
+            if (amountText.isEmpty()) throw new IllegalArgumentException("Missing amount");
+            if (dateText.isEmpty()) throw new IllegalArgumentException("Missing date");
+
+            // Same exact parse as the add screen: a fraction of a paisa is an error, not rounded
+            long amount = Money.parse(amountText);
+            if (amount == Money.INVALID) {
+                throw new IllegalArgumentException("Invalid amount: " + amountText);
+            }
+
+            long dateMillis = ExpenseTimestamps.parse(dateText, zone);
+            if (dateMillis == ExpenseTimestamps.INVALID) {
+                throw new IllegalArgumentException("Invalid date: " + dateText);
+            }
+
+            String category = column(categoryColumn);
+            return new Expense(amount, category.isEmpty() ? null : category, column(noteColumn),
+                    new Date(dateMillis));
+        }
+
+        private String column(int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index).trim() : "";
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.dailyexpensetracker.io;
+
+import android.database.CharArrayBuffer;
+import android.database.Cursor;
+
+import com.example.dailyexpensetracker.database.CategoryCache;
+import com.example.dailyexpensetracker.database.DBHelper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.TimeZone;
+import java.util.zip.GZIPOutputStream;
+
+// Exports expenses as CSV or JSON (see ExpenseExportWriter), optionally gzipped, streaming rows
+// from a forward-only cursor into a buffered writer. The date range and categories are
+// filtered in SQL. No row becomes an Expense or a String: notes are copied into one reused
+// buffer and category names come from CategoryCache, so memory stays flat however many rows
+// there are; the cursor holds one window of rows at a time, though it steps through the whole
+// result once to count it when the first window is filled.
+// Not thread-safe; use one exporter per export, off the main thread.
+public class ExpenseExporter {
+
+    public interface Listener {
+        // Called every PROGRESS_INTERVAL rows and once at the end
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    public static class Result {
+        public final long rowsWritten;
+
+        Result(long rowsWritten) {
+            this.rowsWritten = rowsWritten;
+        }
+    }
+
+    private static final int PROGRESS_INTERVAL = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DBHelper dbHelper;
+    private final TimeZone zone = TimeZone.getDefault();
+    private final CharArrayBuffer note = new CharArrayBuffer(128);
+
+    public ExpenseExporter(DBHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    public Result exportAll(OutputStream target, ExpenseExportWriter.Format format, boolean gzip,
+                            Listener listener) throws IOException {
+        return export(target, format, gzip, Long.MIN_VALUE, Long.MAX_VALUE, null, listener);
+    }
+
+    // Expenses dated in [startMillis, endMillis), oldest first, limited to the named categories
+    // unless categories is null. target is finished but not closed.
+    public Result export(OutputStream target, ExpenseExportWriter.Format format, boolean gzip,
+                         long startMillis, long endMillis, Collection<String> categories,
+                         Listener listener) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(target, BUFFER_SIZE) : null;
+        Writer out = new BufferedWriter(new OutputStreamWriter(compressed != null ? compressed : target,
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        ExpenseExportWriter writer = new ExpenseExportWriter(out, format, zone);
+        CategoryCache categoryNames = dbHelper.getCategoryCache();
+
+        writer.begin();
+        try (Cursor cursor = dbHelper.getExportCursor(startMillis, endMillis, categories)) {
+            int dateMillisColumn = cursor.getColumnIndexOrThrow(DBHelper.COLUMN_DATE_MILLIS);
+            int categoryColumn = cursor.getColumnIndexOrThrow(DBHelper.COLUMN_CATEGORY_ID);
+            int noteColumn = cursor.getColumnIndexOrThrow(DBHelper.COLUMN_NOTE);
+            int amountColumn = cursor.getColumnIndexOrThrow(DBHelper.COLUMN_AMOUNT);
+            // The first window fill counts every row whether or not we ask, so this adds no work
+            long totalRows = cursor.getCount();
+            while (cursor.moveToNext()) {
+                String category = cursor.isNull(categoryColumn)
+                        ? null : categoryNames.nameOf(cursor.getLong(categoryColumn));
+                boolean hasNote = !cursor.isNull(noteColumn);
+                if (hasNote) cursor.copyStringToBuffer(noteColumn, note);
+                writer.write(cursor.getLong(dateMillisColumn), category, hasNote ? note.data : null,
+                        hasNote ? note.sizeCopied : 0, cursor.getLong(amountColumn));
+                if (listener != null && writer.getRows() % PROGRESS_INTERVAL == 0) {
+                    listener.onProgress(writer.getRows(), totalRows);
+                }
+            }
+            writer.end();
+            if (compressed != null) compressed.finish();
+            if (listener != null) {
+                listener.onProgress(writer.getRows(), totalRows);
+            }
+        }
+        return new Result(writer.getRows());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.dailyexpensetracker.io;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseRow;
+import com.example.dailyexpensetracker.utils.PeriodClock;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// What the main screen last showed for the full feed: header total, the three summary cards and
+// the first screen of rows, text already rendered. Read at launch so the first frame has data
+// before the database is opened; the screen then reconciles with the database as usual.
+// A few kilobytes in a small binary file, replaced atomically. Immutable.
+public final class MainScreenSnapshot {
+
+    private static final String TAG = "MainScreenSnapshot";
+    private static final String FILE_NAME = "main_screen_snapshot.bin";
+    private static final int FORMAT_VERSION = 3;
+
+    // About a screenful; the rest of the feed loads from the database as usual
+    public static final int MAX_ROWS = 20;
+
+    // One thread that exits when idle
+    private static final ThreadPoolExecutor WRITER = new ThreadPoolExecutor(1, 1,
+            30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> new Thread(runnable, "main-screen-snapshot"));
+
+    static {
+        WRITER.allowCoreThreadTimeOut(true);
+    }
+
+    private final String totalText;
+    private final String todayText;
+    private final String weekText;
+    private final String monthText;
+    private final List<ExpenseRow> rows;
+    // Start of the day the card totals are for, as PeriodClock bounds it; they mean nothing on
+    // another day
+    private final long todayStart;
+
+    public MainScreenSnapshot(String totalText, String todayText, String weekText, String monthText,
+                              List<ExpenseRow> rows) {
+        this(totalText, todayText, weekText, monthText,
+                rows.size() > MAX_ROWS ? new ArrayList<>(rows.subList(0, MAX_ROWS)) : rows,
+                currentTodayStart());
+    }
+
+    private MainScreenSnapshot(String totalText, String todayText, String weekText, String monthText,
+                               List<ExpenseRow> rows, long todayStart) {
+        this.totalText = totalText;
+        this.todayText = todayText;
+        this.weekText = weekText;
+        this.monthText = monthText;
+        this.rows = Collections.unmodifiableList(rows);
+        this.todayStart = todayStart;
+    }
+
+    public String getTotalText() {
+        return totalText;
+    }
+
+    public String getTodayText() {
+        return todayText;
+    }
+
+    public String getWeekText() {
+        return weekText;
+    }
+
+    public String getMonthText() {
+        return monthText;
+    }
+
+    public List<ExpenseRow> getRows() {
+        return rows;
+    }
+
+    // False once PeriodClock has moved on to another day (midnight, or a time zone or clock
+    // change), so yesterday's "today" total isn't shown as today's
+    public boolean areCardsCurrent() {
+        return todayStart == currentTodayStart();
+    }
+
+    // The last snapshot written, or null if there is none or it can't be used. Small enough
+    // to read on the main thread, which is the point: it is there for the first frame.
+    public static MainScreenSnapshot read(Context context) {
+        AtomicFile file = file(context);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+            if (in.readInt() != FORMAT_VERSION) return null;
+            // Rendered text is only good for the locale it was rendered in
+            if (!in.readUTF().equals(Locale.getDefault().toString())) return null;
+            long todayStart = in.readLong();
+            String total = in.readUTF();
+            String today = in.readUTF();
+            String week = in.readUTF();
+            String month = in.readUTF();
+            int count = in.readInt();
+            if (count < 0 || count > MAX_ROWS) return null;
+            List<ExpenseRow> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Expense expense = new Expense(in.readInt(), in.readLong(), readNullable(in),
+                        readNullable(in), new Date(in.readLong()));
+                rows.add(new ExpenseRow(expense, in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF()));
+            }
+            return new MainScreenSnapshot(total, today, week, month, rows, todayStart);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Ignoring unreadable snapshot", e);
+            return null;
+        }
+    }
+
+    // Replaces the stored snapshot. Does file I/O; call it off the main thread.
+    public void write(Context context) {
+        AtomicFile file = file(context);
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(Locale.getDefault().toString());
+            out.writeLong(todayStart);
+            out.writeUTF(totalText);
+            out.writeUTF(todayText);
+            out.writeUTF(weekText);
+            out.writeUTF(monthText);
+            out.writeInt(rows.size());
+            for (ExpenseRow row : rows) {
+                Expense expense = row.getExpense();
+                out.writeInt(expense.getId());
+                out.writeLong(expense.getAmountPaise());
+                writeNullable(out, expense.getCategory());
+                writeNullable(out, expense.getNote());
+                out.writeLong(expense.getDate().getTime());
+                out.writeUTF(row.getCategoryText());
+                out.writeUTF(row.getNoteText());
+                out.writeUTF(row.getAmountText());
+                out.writeUTF(row.getDateText());
+            }
+            out.flush();
+            file.finishWrite(stream);
+        } catch (IOException | RuntimeException e) {
+            // E.g. a note longer than writeUTF allows; the previous snapshot stays in place
+            Log.w(TAG, "Failed to write snapshot", e);
+            if (stream != null) file.failWrite(stream);
+        }
+    }
+
+    // Writes on a background thread; saves arrive in order, so the last one wins
+    public void writeInBackground(Context context) {
+        Context appContext = context.getApplicationContext();
+        WRITER.execute(() -> write(appContext));
+    }
+
+    public static void delete(Context context) {
+        file(context).delete();
+    }
+
+    private static AtomicFile file(Context context) {
+        return new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static long currentTodayStart() {
+        return PeriodClock.get().todayRange()[0];
+    }
+}
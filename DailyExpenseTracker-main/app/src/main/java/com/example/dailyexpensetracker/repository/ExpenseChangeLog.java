@@ -0,0 +1,57 @@
+package com.example.dailyexpensetracker.repository;
+
+import com.example.dailyexpensetracker.models.ExpenseChange;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// The most recent expense changes, numbered by a version that goes up by one per change.
+// A screen remembers the version it last applied and asks for what came after it; when that
+// is no longer known (too old, or a write that wasn't described row by row) it gets null and
+// loads again from scratch. Thread-safe.
+final class ExpenseChangeLog {
+
+    private final int capacity;
+    // Changes numbered version - log.size() + 1 .. version
+    private final ArrayDeque<ExpenseChange> log = new ArrayDeque<>();
+    private long version;
+
+    ExpenseChangeLog(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized long getVersion() {
+        return version;
+    }
+
+    // Adds the changes and returns the new version. null (unknown changes) forgets everything
+    // logged so far, so no screen can patch its way across it.
+    synchronized long append(List<ExpenseChange> changes) {
+        if (changes == null) {
+            log.clear();
+            return ++version;
+        }
+        for (ExpenseChange change : changes) {
+            log.addLast(change);
+            version++;
+            if (log.size() > capacity) log.removeFirst();
+        }
+        return version;
+    }
+
+    // Changes after fromVersion up to and including toVersion, oldest first, or null if some
+    // of them are no longer known
+    synchronized List<ExpenseChange> between(long fromVersion, long toVersion) {
+        long firstKnown = version - log.size() + 1;
+        if (fromVersion < firstKnown - 1 || toVersion > version || fromVersion > toVersion) return null;
+        List<ExpenseChange> changes = new ArrayList<>((int) (toVersion - fromVersion));
+        Iterator<ExpenseChange> iterator = log.iterator();
+        for (long v = firstKnown; v <= toVersion; v++) {
+            ExpenseChange change = iterator.next();
+            if (v > fromVersion) changes.add(change);
+        }
+        return changes;
+    }
+}
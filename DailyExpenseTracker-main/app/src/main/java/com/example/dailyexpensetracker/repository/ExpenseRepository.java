@@ -0,0 +1,316 @@
+package com.example.dailyexpensetracker.repository;
+
+import android.content.Context;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.dailyexpensetracker.database.DBHelper;
+import com.example.dailyexpensetracker.database.ExpenseSummaryEngine;
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+import com.example.dailyexpensetracker.models.ExpenseReport;
+import com.example.dailyexpensetracker.models.ExpenseRow;
+import com.example.dailyexpensetracker.models.ExpenseSearchResult;
+import com.example.dailyexpensetracker.models.ExpenseSummary;
+import com.example.dailyexpensetracker.models.SpendingBreakdown;
+import com.example.dailyexpensetracker.utils.ExpenseRowFormatter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs every DBHelper call on a small background pool and hands results back as LiveData,
+// so screens never touch the database on the main thread. A LiveData holds null if its
+// task failed or was cancelled; failures are logged here.
+public class ExpenseRepository {
+
+    private static final String TAG = "ExpenseRepository";
+    private static final int THREAD_COUNT = 2;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    // Enough for any realistic gap between a screen stopping and starting again; a screen that
+    // falls further behind reloads
+    private static final int MAX_LOGGED_CHANGES = 1000;
+
+    private static ExpenseRepository instance;
+
+    private final DBHelper dbHelper;
+    private final ExecutorService executor;
+    private final ExpenseChangeLog changeLog = new ExpenseChangeLog(MAX_LOGGED_CHANGES);
+    private final MutableLiveData<Long> expenseChanges = new MutableLiveData<>(0L);
+    private final ExpenseRowFormatter rowFormatter = new ExpenseRowFormatter();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final PendingDeletions pendingDeletions = new PendingDeletions();
+    private final MutableLiveData<Set<Integer>> hiddenExpenseIds = new MutableLiveData<>(Collections.emptySet());
+
+    public static synchronized ExpenseRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ExpenseRepository(DBHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    private ExpenseRepository(DBHelper dbHelper) {
+        this.dbHelper = dbHelper;
+
+        // Two workers let a read run alongside a write (the database is in WAL mode);
+        // they exit when idle so a backgrounded app holds no threads.
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "expense-db-" + threadNumber.incrementAndGet());
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+
+        // DBHelper reports each committed write, whichever screen or task made it. The row is
+        // rendered here on the writing thread, so screens can show it as it is. The repository
+        // lives as long as the process, so the listener is never removed.
+        dbHelper.addChangeListener(changes -> {
+            List<ExpenseChange> rendered = null;
+            if (changes != null) {
+                rendered = new ArrayList<>(changes.size());
+                for (ExpenseChange change : changes) {
+                    rendered.add(change.getAfter() == null ? change
+                            : change.withAfterRow(rowFormatter.format(Collections.singletonList(change.getAfter())).get(0)));
+                }
+            }
+            expenseChanges.postValue(changeLog.append(rendered));
+        });
+    }
+
+    // ✅ CHANGE FEED
+
+    // The change version, bumped by every write. A new observer gets the current value straight
+    // away, and a stopped screen gets only the latest version when it starts again; it then asks
+    // getChanges for everything since the version it last applied.
+    public LiveData<Long> getExpenseChanges() {
+        return expenseChanges;
+    }
+
+    // The version right now, to remember alongside a load so the changes that land while it
+    // runs can be applied to its result
+    public long getChangeVersion() {
+        return changeLog.getVersion();
+    }
+
+    // What changed after fromVersion up to toVersion, oldest first; null when that is not
+    // known any more and the screen should load again
+    public List<ExpenseChange> getChanges(long fromVersion, long toVersion) {
+        return changeLog.between(fromVersion, toVersion);
+    }
+
+    // ✅ READS
+
+    public LiveData<Expense> getExpense(int id) {
+        return load(() -> dbHelper.getExpense(id));
+    }
+
+    // First page when lastLoaded is null, otherwise the page after it
+    public LiveData<List<ExpenseRow>> getExpenseRowsPage(ExpenseRow lastLoaded, int pageSize) {
+        return loadRows(() -> lastLoaded == null
+                ? dbHelper.getExpensesPage(Long.MAX_VALUE, Integer.MAX_VALUE, pageSize)
+                : dbHelper.getExpensesPage(lastLoaded.getExpense().getDate().getTime(), lastLoaded.getId(), pageSize));
+    }
+
+    public LiveData<List<ExpenseRow>> getTodayExpenseRows() {
+        return loadRows(dbHelper::getTodayExpenses);
+    }
+
+    public LiveData<List<ExpenseRow>> getThisWeekExpenseRows() {
+        return loadRows(dbHelper::getThisWeekExpenses);
+    }
+
+    public LiveData<List<ExpenseRow>> getThisMonthExpenseRows() {
+        return loadRows(dbHelper::getThisMonthExpenses);
+    }
+
+    public LiveData<ExpenseSearchResult> searchExpenses(String query) {
+        return load(() -> dbHelper.searchExpenses(query));
+    }
+
+    // First page of the result when lastLoaded is null, otherwise the page after it
+    public LiveData<List<ExpenseRow>> getSearchRowsPage(ExpenseSearchResult result, ExpenseRow lastLoaded, int pageSize) {
+        return loadRows(() -> dbHelper.getSearchPage(result,
+                lastLoaded == null ? 0 : result.positionOf(lastLoaded.getId()) + 1, pageSize));
+    }
+
+    // Every category any expense has used, sorted
+    public LiveData<List<String>> getCategoryNames() {
+        return load(() -> dbHelper.getCategoryCache().names());
+    }
+
+    public LiveData<ExpenseSummary> getAllTimeSummary() {
+        return load(() -> summaries().getAllTimeSummary());
+    }
+
+    public LiveData<ExpenseSummary> getTodaySummary() {
+        return load(() -> summaries().getTodaySummary());
+    }
+
+    public LiveData<ExpenseSummary> getThisWeekSummary() {
+        return load(() -> summaries().getThisWeekSummary());
+    }
+
+    public LiveData<ExpenseSummary> getThisMonthSummary() {
+        return load(() -> summaries().getThisMonthSummary());
+    }
+
+    public LiveData<SpendingBreakdown> getTodayBreakdown() {
+        return load(dbHelper::getTodayBreakdown);
+    }
+
+    public LiveData<SpendingBreakdown> getThisWeekBreakdown() {
+        return load(dbHelper::getThisWeekBreakdown);
+    }
+
+    public LiveData<SpendingBreakdown> getThisMonthBreakdown() {
+        return load(dbHelper::getThisMonthBreakdown);
+    }
+
+    public LiveData<SpendingBreakdown> getAllTimeBreakdown() {
+        return load(dbHelper::getAllTimeBreakdown);
+    }
+
+    // ✅ REPORTS
+    // Slow over years of expenses, so the screen cancels them through signal when it stops; a
+    // cancelled report holds null, without an error being logged
+
+    public LiveData<ExpenseReport> getMonthlyReport(int months, CancellationSignal signal) {
+        return load(() -> dbHelper.getMonthlyReport(months, signal::isCanceled));
+    }
+
+    public LiveData<ExpenseReport> getYearlyReport(CancellationSignal signal) {
+        return load(() -> dbHelper.getYearlyReport(signal::isCanceled));
+    }
+
+    // ✅ WRITES
+
+    // New row id, or -1 if the insert failed
+    public LiveData<Long> addExpense(Expense expense) {
+        return load(() -> dbHelper.addExpense(expense));
+    }
+
+    // Rows updated
+    public LiveData<Integer> updateExpense(Expense expense) {
+        return load(() -> dbHelper.updateExpense(expense));
+    }
+
+    // ✅ TIME ZONE CHANGES
+
+    // The daily rollup is keyed by local day, so it is rebuilt in the new zone; then every
+    // screen reloads, since its periods now cover different instants
+    public void onTimeZoneChanged() {
+        executor.execute(() -> {
+            try {
+                dbHelper.rebuildDailyRollup();
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to rebuild the daily rollup", e);
+            }
+            expenseChanges.postValue(changeLog.append(null));
+        });
+    }
+
+    // ✅ DELETES WITH UNDO
+    // The repository outlives any screen, so pending deletions survive Activity recreation.
+    // These methods are called on the main thread.
+
+    // Hides the expenses at once and returns a batch for commitDeletion or undoDeletion.
+    // Nothing is written until the batch is committed.
+    public int deleteLater(Collection<Integer> ids) {
+        int batch = pendingDeletions.add(ids);
+        publishHiddenIds();
+        return batch;
+    }
+
+    // Shows the batch's expenses again; false if it is already being committed
+    public boolean undoDeletion(int batch) {
+        if (pendingDeletions.undo(batch) == null) return false;
+        publishHiddenIds();
+        return true;
+    }
+
+    // Deletes the batch's expenses in one transaction. Safe to call more than once.
+    public void commitDeletion(int batch) {
+        int[] ids = pendingDeletions.startCommit(batch);
+        if (ids == null) return;
+        executor.execute(() -> {
+            boolean succeeded = false;
+            try {
+                dbHelper.deleteExpenses(ids);
+                succeeded = true;
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to delete " + ids.length + " expenses", e);
+            }
+            boolean result = succeeded;
+            mainHandler.post(() -> {
+                pendingDeletions.finishCommit(batch, result);
+                publishHiddenIds();
+            });
+        });
+    }
+
+    public void commitAllDeletions() {
+        for (int batch : getUndoableDeletions()) {
+            commitDeletion(batch);
+        }
+    }
+
+    // Batches that can still be undone, oldest first
+    public List<Integer> getUndoableDeletions() {
+        return new ArrayList<>(pendingDeletions.undoableBatches());
+    }
+
+    public int[] getDeletionIds(int batch) {
+        return pendingDeletions.idsOf(batch);
+    }
+
+    // Expenses to leave out of every list: pending and committed deletions
+    public LiveData<Set<Integer>> getHiddenExpenseIds() {
+        return hiddenExpenseIds;
+    }
+
+    private void publishHiddenIds() {
+        hiddenExpenseIds.setValue(pendingDeletions.hiddenIds());
+    }
+
+    private ExpenseSummaryEngine summaries() {
+        return dbHelper.getSummaryEngine();
+    }
+
+    // Formats the list on the worker that read it, so the main thread only binds ready text
+    private LiveData<List<ExpenseRow>> loadRows(Callable<List<Expense>> task) {
+        return load(() -> rowFormatter.format(task.call()));
+    }
+
+    private <T> LiveData<T> load(Callable<T> task) {
+        MutableLiveData<T> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            try {
+                result.postValue(task.call());
+            } catch (CancellationException e) {
+                result.postValue(null);
+            } catch (Exception e) {
+                Log.e(TAG, "Database task failed", e);
+                result.postValue(null);
+            }
+        });
+        return result;
+    }
+}
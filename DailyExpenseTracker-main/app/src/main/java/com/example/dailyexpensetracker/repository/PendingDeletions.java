@@ -0,0 +1,81 @@
+package com.example.dailyexpensetracker.repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Expenses the user has deleted but can still undo, grouped in batches (one per delete action).
+// A batch hides its rows from the moment it is added until it is undone. Committed ids stay
+// hidden for good: ids are never reused, and it stops a list loaded before the delete from
+// showing them again. Main thread only.
+final class PendingDeletions {
+
+    private final Map<Integer, int[]> batches = new LinkedHashMap<>();
+    // Batches being written; they can no longer be undone
+    private final Set<Integer> committing = new HashSet<>();
+    private final Set<Integer> deleted = new HashSet<>();
+    private int nextBatch = 1;
+
+    int add(Collection<Integer> ids) {
+        int[] batchIds = new int[ids.size()];
+        int i = 0;
+        for (Integer id : ids) {
+            batchIds[i++] = id;
+        }
+        int batch = nextBatch++;
+        batches.put(batch, batchIds);
+        return batch;
+    }
+
+    // The batch's ids if it can still be undone, removing it; otherwise null
+    int[] undo(int batch) {
+        if (committing.contains(batch)) return null;
+        return batches.remove(batch);
+    }
+
+    // The batch's ids if it has not started committing yet, marking it as committing
+    int[] startCommit(int batch) {
+        if (committing.contains(batch) || !batches.containsKey(batch)) return null;
+        committing.add(batch);
+        return batches.get(batch);
+    }
+
+    // Ends a commit; the batch's rows come back if it failed
+    void finishCommit(int batch, boolean succeeded) {
+        committing.remove(batch);
+        int[] ids = batches.remove(batch);
+        if (succeeded && ids != null) {
+            for (int id : ids) {
+                deleted.add(id);
+            }
+        }
+    }
+
+    // Batches that can still be undone, oldest first
+    Collection<Integer> undoableBatches() {
+        Set<Integer> undoable = new LinkedHashSet<>(batches.keySet());
+        undoable.removeAll(committing);
+        return undoable;
+    }
+
+    int[] idsOf(int batch) {
+        int[] ids = batches.get(batch);
+        return ids != null ? ids : new int[0];
+    }
+
+    // Every id that should not be shown
+    Set<Integer> hiddenIds() {
+        if (batches.isEmpty() && deleted.isEmpty()) return Collections.emptySet();
+        Set<Integer> hidden = new HashSet<>(deleted);
+        for (int[] ids : batches.values()) {
+            for (int id : ids) {
+                hidden.add(id);
+            }
+        }
+        return Collections.unmodifiableSet(hidden);
+    }
+}
@@ -7,20 +7,27 @@ import android.widget.ArrayAdapter;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.dailyexpensetracker.R;
-import com.example.dailyexpensetracker.database.DBHelper;
 import com.example.dailyexpensetracker.databinding.ActivityAddExpenseBinding;
 import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.repository.ExpenseRepository;
+import com.example.dailyexpensetracker.utils.Money;
 import com.google.android.material.snackbar.Snackbar;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Set;
+
+import static com.example.dailyexpensetracker.utils.LiveDataUtils.observeOnce;
 
 public class AddExpenseActivity extends AppCompatActivity {
 
     private ActivityAddExpenseBinding binding;
-    private DBHelper dbHelper;
+    private ExpenseRepository repository;
     private Calendar calendar;
     private SimpleDateFormat dateFormat;
 
@@ -30,7 +37,7 @@ public class AddExpenseActivity extends AppCompatActivity {
         binding = ActivityAddExpenseBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        dbHelper = new DBHelper(this);
+        repository = ExpenseRepository.getInstance(this);
         calendar = Calendar.getInstance();
         dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
 
@@ -45,13 +52,25 @@ public class AddExpenseActivity extends AppCompatActivity {
         binding.buttonSave.setOnClickListener(v -> saveExpense());
     }
 
+    // The built-in categories at once, then every category already used once it is loaded
     private void setupCategoryDropdown() {
         ArrayAdapter<String> adapter = new ArrayAdapter<>(
                 this,
                 R.layout.dropdown_menu_item,
-                getResources().getStringArray(R.array.expense_categories)
+                new ArrayList<>(Arrays.asList(getResources().getStringArray(R.array.expense_categories)))
         );
         binding.autoCompleteCategory.setAdapter(adapter);
+
+        observeOnce(repository.getCategoryNames(), this, names -> {
+            if (names == null) return;
+            Set<String> shown = new HashSet<>();
+            for (int i = 0; i < adapter.getCount(); i++) {
+                shown.add(adapter.getItem(i));
+            }
+            for (String name : names) {
+                if (shown.add(name)) adapter.add(name);
+            }
+        });
     }
 
     private void setupDatePicker() {
@@ -86,8 +105,13 @@ public class AddExpenseActivity extends AppCompatActivity {
         String dateStr = binding.editTextDate.getText().toString().trim();
 
         if (validateInputs(category, amountStr, dateStr)) {
+            // Exact to the paisa; more than two decimals is rejected rather than rounded
+            long amount = Money.parse(amountStr);
+            if (amount == Money.INVALID) {
+                showError("Invalid amount format");
+                return;
+            }
             try {
-                double amount = Double.parseDouble(amountStr);
 
                 // Convert the date string to Date object
                 Date date = dateFormat.parse(dateStr);
@@ -95,16 +119,17 @@ public class AddExpenseActivity extends AppCompatActivity {
                 // Create expense with Date object
                 Expense expense = new Expense(0, amount, category, note, date);
 
-                long id = dbHelper.addExpense(expense);
-                if (id != -1) {
-                    showSuccess();
-                    setResult(RESULT_OK);
-                    finish();
-                } else {
-                    showError("Failed to save expense");
-                }
-            } catch (NumberFormatException e) {
-                showError("Invalid amount format");
+                binding.buttonSave.setEnabled(false);
+                observeOnce(repository.addExpense(expense), this, id -> {
+                    if (id != null && id != -1) {
+                        showSuccess();
+                        setResult(RESULT_OK);
+                        finish();
+                    } else {
+                        binding.buttonSave.setEnabled(true);
+                        showError("Failed to save expense");
+                    }
+                });
             } catch (Exception e) {
                 showError("Invalid date format");
                 e.printStackTrace();
@@ -144,10 +169,4 @@ public class AddExpenseActivity extends AppCompatActivity {
                 .setBackgroundTint(getResources().getColor(R.color.error_red))
                 .show();
     }
-
-    @Override
-    protected void onDestroy() {
-        dbHelper.close();
-        super.onDestroy();
-    }
 }
\ No newline at end of file
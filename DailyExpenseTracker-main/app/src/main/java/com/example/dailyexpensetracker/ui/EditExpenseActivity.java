@@ -1,7 +1,7 @@
 package com.example.dailyexpensetracker.ui;
 
+import android.app.DatePickerDialog;
 import android.os.Bundle;
-import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
@@ -9,19 +9,27 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.dailyexpensetracker.R;
-import com.example.dailyexpensetracker.database.DBHelper;
 import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.repository.ExpenseRepository;
+import com.example.dailyexpensetracker.utils.Money;
 
 import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.Calendar;
 import java.util.Locale;
 
+import static com.example.dailyexpensetracker.utils.LiveDataUtils.observeOnce;
+
 public class EditExpenseActivity extends AppCompatActivity {
 
-    private EditText editAmount, editCategory, editNote;
+    private EditText editAmount, editCategory, editNote, editDate;
     private Button updateButton;
-    private DBHelper dbHelper;
+    private ExpenseRepository repository;
     private Expense currentExpense;
+    // Field text as first shown, so untouched fields are not saved
+    private String shownAmount, shownCategory, shownNote;
+    // The expense's own date and time until the user picks another day
+    private final Calendar calendar = Calendar.getInstance();
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -31,36 +39,90 @@ public class EditExpenseActivity extends AppCompatActivity {
         editAmount = findViewById(R.id.edit_amount);
         editCategory = findViewById(R.id.edit_category);
         editNote = findViewById(R.id.edit_note);
+        editDate = findViewById(R.id.edit_date);
         updateButton = findViewById(R.id.button_update);
 
-        dbHelper = new DBHelper(this);
+        repository = ExpenseRepository.getInstance(this);
 
+        // Nothing to save until the expense has loaded
+        updateButton.setEnabled(false);
+        editDate.setEnabled(false);
         int expenseId = getIntent().getIntExtra("expense_id", -1);
-        currentExpense = dbHelper.getExpense(expenseId);
+        observeOnce(repository.getExpense(expenseId), this, expense -> {
+            currentExpense = expense;
+            if (currentExpense != null) {
+                shownAmount = Money.toPlainString(currentExpense.getAmountPaise());
+                shownCategory = nullToEmpty(currentExpense.getCategory());
+                shownNote = nullToEmpty(currentExpense.getNote());
+                editAmount.setText(shownAmount);
+                editCategory.setText(shownCategory);
+                editNote.setText(shownNote);
+                calendar.setTime(currentExpense.getDate());
+                updateDateText();
+                editDate.setEnabled(true);
+                updateButton.setEnabled(true);
+            }
+        });
 
-        if (currentExpense != null) {
-            editAmount.setText(String.valueOf(currentExpense.getAmount()));
-            editCategory.setText(currentExpense.getCategory());
-            editNote.setText(currentExpense.getNote());
-        }
+        editDate.setOnClickListener(v -> showDatePickerDialog());
+        updateButton.setOnClickListener(v -> saveChanges());
+    }
+
+    private void showDatePickerDialog() {
+        new DatePickerDialog(
+                this,
+                (view, year, month, dayOfMonth) -> {
+                    // Keeps the time of day, so the order within the day is unchanged
+                    calendar.set(year, month, dayOfMonth);
+                    updateDateText();
+                },
+                calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH),
+                calendar.get(Calendar.DAY_OF_MONTH)
+        ).show();
+    }
 
-        updateButton.setOnClickListener(v -> {
-            String category = editCategory.getText().toString();
-            String note = editNote.getText().toString();
-            double amount = Double.parseDouble(editAmount.getText().toString());
-            Date date = new Date(); // current date, or you can use a picker
+    private void updateDateText() {
+        editDate.setText(dateFormat.format(calendar.getTime()));
+    }
 
-            Expense updatedExpense = new Expense(
-                    currentExpense.getId(), amount, category, note, date
-            );
+    // Applies only the fields the user changed; the expense tracks them, so the update writes
+    // just those columns, and an untouched form is not written at all
+    private void saveChanges() {
+        String amountText = editAmount.getText().toString();
+        String category = editCategory.getText().toString();
+        String note = editNote.getText().toString();
 
-            int result = dbHelper.updateExpense(updatedExpense);
-            if (result > 0) {
+        if (!amountText.equals(shownAmount)) {
+            long amount = Money.parse(amountText);
+            if (amount == Money.INVALID) {
+                editAmount.setError("Invalid amount");
+                return;
+            }
+            currentExpense.setAmountPaise(amount);
+        }
+        if (!category.equals(shownCategory)) currentExpense.setCategory(category);
+        if (!note.equals(shownNote)) currentExpense.setNote(note);
+        currentExpense.setDate(calendar.getTime());
+
+        if (!currentExpense.hasChanges()) {
+            finish();
+            return;
+        }
+
+        updateButton.setEnabled(false);
+        observeOnce(repository.updateExpense(currentExpense), this, result -> {
+            if (result != null && result > 0) {
                 Toast.makeText(this, "Expense updated", Toast.LENGTH_SHORT).show();
                 finish();
             } else {
+                updateButton.setEnabled(true);
                 Toast.makeText(this, "Update failed", Toast.LENGTH_SHORT).show();
             }
         });
     }
+
+    private static String nullToEmpty(String text) {
+        return text != null ? text : "";
+    }
 }
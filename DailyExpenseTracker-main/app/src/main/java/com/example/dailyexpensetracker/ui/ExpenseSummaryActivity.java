@@ -1,17 +1,47 @@
 package com.example.dailyexpensetracker.ui;
 
 import android.os.Bundle;
+import android.os.CancellationSignal;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.dailyexpensetracker.R;
-import com.example.dailyexpensetracker.database.DBHelper;
+import com.example.dailyexpensetracker.models.CategoryTotal;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+import com.example.dailyexpensetracker.models.ExpenseReport;
+import com.example.dailyexpensetracker.models.NoteTotal;
+import com.example.dailyexpensetracker.models.ReportPeriod;
+import com.example.dailyexpensetracker.repository.ExpenseRepository;
+import com.example.dailyexpensetracker.utils.Money;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import static com.example.dailyexpensetracker.utils.LiveDataUtils.observeOnce;
 
 public class ExpenseSummaryActivity extends AppCompatActivity {
 
+    // Months in the monthly report, this one included
+    private static final int REPORT_MONTHS = 12;
+    // Categories shown for each period of a report
+    private static final int REPORT_CATEGORIES = 3;
+
     private TextView totalExpensesTextView, totalCountTextView;
-    private DBHelper dbHelper;
+    private TextView monthlyReportTextView, yearlyReportTextView;
+    private ExpenseRepository repository;
+    // Change feed version the figures reflect; -1 until loaded
+    private long appliedVersion = -1;
+    private boolean loading;
+    // In paise
+    private long total;
+    private int count;
+    // The report load in flight, cancelled when the screen stops; null when there is none
+    private CancellationSignal reportSignal;
+    // Change feed version the reports reflect; -1 until loaded
+    private long reportVersion = -1;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -20,17 +50,135 @@ public class ExpenseSummaryActivity extends AppCompatActivity {
 
         totalExpensesTextView = findViewById(R.id.text_total_expense);
         totalCountTextView = findViewById(R.id.text_expense_count);
+        monthlyReportTextView = findViewById(R.id.text_monthly_report);
+        yearlyReportTextView = findViewById(R.id.text_yearly_report);
+
+        repository = ExpenseRepository.getInstance(this);
+        repository.getExpenseChanges().observe(this, this::onExpensesChanged);
+    }
 
-        dbHelper = new DBHelper(this);
-        loadSummary();
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (reportSignal == null && reportVersion != repository.getChangeVersion()) loadReports();
+    }
+
+    // A report nobody will see stops rather than keeping every core busy
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (reportSignal != null) {
+            reportSignal.cancel();
+            reportSignal = null;
+        }
+    }
+
+    // Adds each change's amounts to the figures; loads them again only when the changes aren't known
+    private void onExpensesChanged(long version) {
+        // Reports are loaded again rather than patched; a load in flight checks when it returns
+        if (reportSignal == null && version != reportVersion) loadReports();
+        if (appliedVersion >= 0 && version <= appliedVersion) return;
+        List<ExpenseChange> changes = appliedVersion < 0 ? null : repository.getChanges(appliedVersion, version);
+        if (changes == null) {
+            // A load in flight sees the new version when it returns and loads again
+            if (!loading) loadSummary();
+            return;
+        }
+        appliedVersion = version;
+        for (ExpenseChange change : changes) {
+            if (change.getBefore() != null) {
+                total -= change.getBefore().getAmountPaise();
+                count--;
+            }
+            if (change.getAfter() != null) {
+                total += change.getAfter().getAmountPaise();
+                count++;
+            }
+        }
+        showSummary();
     }
 
     private void loadSummary() {
-        double totalAmount = dbHelper.getTotalExpenses();
-        int totalCount = dbHelper.getExpensesCount();
+        appliedVersion = -1;
+        loading = true;
+        long requestVersion = repository.getChangeVersion();
+        observeOnce(repository.getAllTimeSummary(), this, summary -> {
+            loading = false;
+            if (summary == null) return;
+            // A write landing while it loaded may or may not be counted, so load again
+            if (repository.getChangeVersion() != requestVersion) {
+                loadSummary();
+                return;
+            }
+            appliedVersion = requestVersion;
+            total = summary.getTotal();
+            count = summary.getCount();
+            showSummary();
+        });
+    }
 
-        totalExpensesTextView.setText("₹ " + totalAmount);
-        totalCountTextView.setText(String.valueOf(totalCount));
+    // Monthly then yearly, one at a time so a write still has a free worker
+    private void loadReports() {
+        CancellationSignal signal = new CancellationSignal();
+        reportSignal = signal;
+        long requestVersion = repository.getChangeVersion();
+        observeOnce(repository.getMonthlyReport(REPORT_MONTHS, signal), this, monthly -> {
+            if (reportSignal != signal) return;
+            if (monthly == null) {
+                reportSignal = null;
+                return;
+            }
+            monthlyReportTextView.setText(formatReport(monthly));
+            observeOnce(repository.getYearlyReport(signal), this, yearly -> {
+                if (reportSignal != signal) return;
+                reportSignal = null;
+                if (yearly == null) return;
+                yearlyReportTextView.setText(formatReport(yearly));
+                if (repository.getChangeVersion() != requestVersion) {
+                    loadReports();
+                    return;
+                }
+                reportVersion = requestVersion;
+            });
+        });
     }
-}
 
+    // Newest period first: total and change on the one before, the typical and the larger
+    // expenses, then the biggest categories and notes
+    private static String formatReport(ExpenseReport report) {
+        DateTimeFormatter title = DateTimeFormatter.ofPattern(
+                report.getGranularity() == ExpenseReport.Granularity.MONTH ? "MMMM yyyy" : "yyyy",
+                Locale.getDefault());
+        StringBuilder text = new StringBuilder();
+        List<ReportPeriod> periods = report.getPeriods();
+        for (int i = periods.size() - 1; i >= 0; i--) {
+            ReportPeriod period = periods.get(i);
+            if (text.length() > 0) text.append("\n\n");
+            text.append(LocalDate.ofEpochDay(period.getStartDay()).format(title))
+                    .append("\n₹ ").append(Money.toPlainString(period.getTotal()))
+                    .append(" in ").append(period.getCount()).append(period.getCount() == 1 ? " expense" : " expenses");
+            if (!Double.isNaN(period.getChangePercent())) {
+                text.append(String.format(Locale.getDefault(), " (%+.0f%%)", period.getChangePercent()));
+            }
+            if (period.getCount() == 0) continue;
+            text.append("\nMedian ₹ ").append(Money.toPlainString(period.getMedian()))
+                    .append(", 90th percentile ₹ ").append(Money.toPlainString(period.getPercentile90()));
+            List<CategoryTotal> categories = period.getCategories();
+            for (int c = 0; c < Math.min(REPORT_CATEGORIES, categories.size()); c++) {
+                CategoryTotal category = categories.get(c);
+                text.append("\n• ").append(category.getCategory().isEmpty() ? "Uncategorised" : category.getCategory())
+                        .append(": ₹ ").append(Money.toPlainString(category.getTotal()));
+            }
+            for (NoteTotal note : period.getTopNotes()) {
+                text.append("\n• \"").append(note.getNote()).append("\" ×").append(note.getCount())
+                        .append(": ₹ ").append(Money.toPlainString(note.getTotal()));
+            }
+        }
+        return text.toString();
+    }
+
+    private void showSummary() {
+        totalExpensesTextView.setText("₹ " + Money.toPlainString(total));
+        totalCountTextView.setText(String.valueOf(count));
+    }
+}
@@ -2,56 +2,147 @@ package com.example.dailyexpensetracker.ui;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
+import androidx.appcompat.widget.SearchView;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.dailyexpensetracker.R;
 import com.example.dailyexpensetracker.adapters.ExpenseAdapter;
-import com.example.dailyexpensetracker.database.DBHelper;
+import com.example.dailyexpensetracker.adapters.ExpensePager;
 import com.example.dailyexpensetracker.databinding.ActivityMainBinding;
+import com.example.dailyexpensetracker.io.MainScreenSnapshot;
 import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+import com.example.dailyexpensetracker.models.ExpenseRow;
+import com.example.dailyexpensetracker.models.ExpenseSearchResult;
+import com.example.dailyexpensetracker.models.ExpenseSummary;
+import com.example.dailyexpensetracker.repository.ExpenseRepository;
+import com.example.dailyexpensetracker.utils.Money;
+import com.example.dailyexpensetracker.utils.PeriodRanges;
 import com.google.android.material.snackbar.Snackbar;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.example.dailyexpensetracker.utils.LiveDataUtils.observeOnce;
 
 public class MainActivity extends AppCompatActivity {
 
+    // Typing pauses this long before a search runs, so each keystroke doesn't query
+    private static final long SEARCH_DELAY_MS = 300;
+
+    // Fresh results settle for this long before the snapshot for the next launch is saved
+    private static final long SNAPSHOT_DELAY_MS = 1000;
+
+    private static final String TAG = "MainActivity";
+    private static final String STATE_SELECTED_IDS = "selected_ids";
+    private static final String STATE_PENDING_DELETIONS = "pending_deletions";
+
+    // Indexes into totals: the header (all time, or the filter's period) and the three cards
+    private static final int TOTAL_HEADER = 0;
+    private static final int TOTAL_TODAY = 1;
+    private static final int TOTAL_WEEK = 2;
+    private static final int TOTAL_MONTH = 3;
+
     private ActivityMainBinding binding;
-    private DBHelper dbHelper;
+    private ExpenseRepository repository;
     private ExpenseAdapter adapter;
-    private final List<Expense> expenseList = new ArrayList<>();
+    private ExpensePager pager;
+    // Filter whose results are wanted, or null for the full feed; stale answers are ignored
+    private String currentFilter;
+    // Search being shown (or null) and its ranked ids once they arrive
+    private String currentSearch;
+    private ExpenseSearchResult searchResult;
+    private String pendingQuery;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = () -> search(pendingQuery);
     private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
+    private final Runnable snapshotRunnable = this::saveSnapshot;
+    private ActionMode selectionMode;
+    // From the start of onCreate to the first rows on screen, snapshot or database; -1 until then
+    private long createNanos;
+    private long timeToFirstDataNanos = -1;
+    // Change feed version the list and totals reflect; -1 until the first load
+    private long appliedVersion = -1;
+    // Version when the page being loaded was asked for, to catch it up with later changes
+    private long pageRequestVersion;
+    // Totals on screen in paise, so changes can be added to them exactly; NOT_LOADED until loaded
+    private static final long NOT_LOADED = Long.MIN_VALUE;
+    private final long[] totals = {NOT_LOADED, NOT_LOADED, NOT_LOADED, NOT_LOADED};
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        createNanos = System.nanoTime();
         super.onCreate(savedInstanceState);
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        dbHelper = new DBHelper(this);
+        repository = ExpenseRepository.getInstance(this);
         setupRecyclerView();
         setupFAB();
         setupFilterButtons();
         setupCardClicks();
-        loadExpenses();
+        setupSearch();
+        // Paint the last known feed before anything touches the database; the change observer
+        // below then loads it, and the diff only rebinds rows that differ
+        if (savedInstanceState == null) {
+            showSnapshot();
+        }
+        restoreDeletions(savedInstanceState);
+        repository.getHiddenExpenseIds().observe(this, adapter::setHiddenIds);
+        repository.getExpenseChanges().observe(this, this::onExpensesChanged);
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadExpenses();
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putIntegerArrayList(STATE_SELECTED_IDS, new ArrayList<>(adapter.getSelectedIds()));
+        // The repository keeps pending deletions while the process lives; this covers the
+        // process being killed while an undo was still on offer
+        ArrayList<Integer> pending = new ArrayList<>();
+        for (int batch : repository.getUndoableDeletions()) {
+            for (int id : repository.getDeletionIds(batch)) {
+                pending.add(id);
+            }
+        }
+        outState.putIntegerArrayList(STATE_PENDING_DELETIONS, pending);
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(searchRunnable);
+        handler.removeCallbacks(snapshotRunnable);
+        if (isFinishing()) {
+            repository.commitAllDeletions();
+        }
+        super.onDestroy();
     }
 
     private void setupRecyclerView() {
-        adapter = new ExpenseAdapter(this, expenseList, dbHelper);
+        adapter = new ExpenseAdapter(this, this::onSelectionChanged);
         binding.expenseRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         binding.expenseRecyclerView.setAdapter(adapter);
+
+        pager = new ExpensePager(this::loadExpensePage, this::onPageLoaded);
+        binding.expenseRecyclerView.addOnScrollListener(pager);
     }
 
     private void setupFAB() {
@@ -70,90 +161,273 @@ public class MainActivity extends AppCompatActivity {
         binding.cardToday.setOnClickListener(v -> openSummaryDetail("today"));
         binding.cardWeek.setOnClickListener(v -> openSummaryDetail("week"));
         binding.cardMonth.setOnClickListener(v -> openSummaryDetail("month"));
+        binding.totalAmountTextView.setOnClickListener(v -> openSummaryDetail("all"));
+    }
+
+    private void setupSearch() {
+        binding.searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                handler.removeCallbacks(searchRunnable);
+                search(query);
+                binding.searchView.clearFocus();
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                handler.removeCallbacks(searchRunnable);
+                pendingQuery = newText;
+                handler.postDelayed(searchRunnable, SEARCH_DELAY_MS);
+                return true;
+            }
+        });
+    }
+
+    // Shows the current data again for whatever view is on screen
+    private void reload() {
+        appliedVersion = repository.getChangeVersion();
+        if (currentSearch != null) {
+            search(currentSearch);
+            updateSummaryCards();
+        } else if (currentFilter != null) {
+            loadFilteredExpenses(currentFilter);
+            updateSummaryCards();
+        } else {
+            loadExpenses(adapter.getLatestList().size());
+        }
     }
 
     private void loadExpenses() {
-        try {
-            List<Expense> expenses = dbHelper.getAllExpenses();
-            expenseList.clear();
-            expenseList.addAll(expenses);
+        loadExpenses(ExpensePager.DEFAULT_PAGE_SIZE);
+    }
+
+    // A first page larger than usual keeps already loaded rows on screen when refreshing
+    private void loadExpenses(int firstPageSize) {
+        currentFilter = null;
+        currentSearch = null;
+        searchResult = null;
+        pager.reset(firstPageSize);
+        loadTotal(TOTAL_HEADER, repository::getAllTimeSummary);
+        updateSummaryCards();
+    }
+
+    private void loadExpensePage(ExpenseRow lastLoaded, int pageSize, Consumer<List<ExpenseRow>> onLoaded) {
+        LiveData<List<ExpenseRow>> page = searchResult != null
+                ? repository.getSearchRowsPage(searchResult, lastLoaded, pageSize)
+                : repository.getExpenseRowsPage(lastLoaded, pageSize);
+        pageRequestVersion = repository.getChangeVersion();
+        observeOnce(page, this, onLoaded::accept);
+    }
+
+    // Ranks every match, then pages through them like the feed. An empty query goes back to the feed.
+    private void search(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            if (currentSearch != null) loadExpenses();
+            return;
+        }
+        currentFilter = null;
+        currentSearch = query;
+        searchResult = null;
+        pager.stop();
+        observeOnce(repository.searchExpenses(query), this, result -> {
+            if (!query.equals(currentSearch)) return;
+            if (result == null) {
+                showErrorSnackbar(getString(R.string.search_failed));
+                return;
+            }
+            searchResult = result;
+            pager.reset();
+        });
+    }
 
-            double total = calculateTotal(expenses);
-            updateUI(expenses.isEmpty(), total);
+    private void clearSearch() {
+        handler.removeCallbacks(searchRunnable);
+        currentSearch = null;
+        searchResult = null;
+        binding.searchView.setQuery("", false);
+    }
 
-            adapter.notifyDataSetChanged();
-        } catch (Exception e) {
+    private void onPageLoaded(List<ExpenseRow> page, boolean firstPage) {
+        if (page == null) {
             showErrorSnackbar("Failed to load expenses");
+            return;
+        }
+        // Search results are loaded again on any change, so only the feed needs catching up
+        List<ExpenseChange> missed = currentSearch != null
+                ? Collections.emptyList() : changesSince(pageRequestVersion);
+        if (missed == null) {
+            reload();
+            return;
+        }
+        if (firstPage) {
+            List<ExpenseRow> rows = ExpenseAdapter.withChanges(page, missed, this::belongsToList, pager.isEndReached());
+            adapter.submitList(rows);
+            updateEmptyState(rows.isEmpty());
+            onFirstData();
+            scheduleSnapshot();
+        } else {
+            adapter.appendData(page);
+            adapter.applyChanges(missed, this::belongsToList, pager.isEndReached());
         }
     }
 
     private void loadFilteredExpenses(String filterType) {
-        try {
-            List<Expense> all = dbHelper.getAllExpenses();
-            List<Expense> filtered = new ArrayList<>();
-
-            for (Expense e : all) {
-                long expenseTime = e.getDate().getTime();  // get Date as long
-
-                if (filterType.equals("today") && isToday(expenseTime)) {
-                    filtered.add(e);
-                } else if (filterType.equals("week") && isThisWeek(expenseTime)) {
-                    filtered.add(e);
-                } else if (filterType.equals("month") && isThisMonth(expenseTime)) {
-                    filtered.add(e);
-                }
-            }
+        LiveData<List<ExpenseRow>> expenses;
+        LiveData<ExpenseSummary> summary;
+        switch (filterType) {
+            case "today":
+                expenses = repository.getTodayExpenseRows();
+                summary = repository.getTodaySummary();
+                break;
+            case "week":
+                expenses = repository.getThisWeekExpenseRows();
+                summary = repository.getThisWeekSummary();
+                break;
+            case "month":
+                expenses = repository.getThisMonthExpenseRows();
+                summary = repository.getThisMonthSummary();
+                break;
+            default:
+                return;
+        }
 
-            expenseList.clear();
-            expenseList.addAll(filtered);
+        clearSearch();
+        currentFilter = filterType;
+        pager.stop();
+        long requestVersion = repository.getChangeVersion();
+        observeOnce(expenses, this, filtered -> {
+            if (!filterType.equals(currentFilter)) return;
+            if (filtered == null) {
+                showErrorSnackbar("Failed to filter expenses");
+                return;
+            }
+            List<ExpenseChange> missed = changesSince(requestVersion);
+            if (missed == null) {
+                reload();
+                return;
+            }
+            List<ExpenseRow> rows = ExpenseAdapter.withChanges(filtered, missed, this::belongsToList, true);
+            adapter.submitList(rows);
+            updateEmptyState(rows.isEmpty());
+        });
+        loadTotal(TOTAL_HEADER, () -> summary);
+    }
 
-            double total = calculateTotal(filtered);
-            updateUI(filtered.isEmpty(), total);
-            adapter.notifyDataSetChanged();
+    private void updateSummaryCards() {
+        loadTotal(TOTAL_TODAY, repository::getTodaySummary);
+        loadTotal(TOTAL_WEEK, repository::getThisWeekSummary);
+        loadTotal(TOTAL_MONTH, repository::getThisMonthSummary);
+    }
 
-        } catch (Exception e) {
-            showErrorSnackbar("Failed to filter expenses");
+    // ✅ CHANGE FEED
+    // Writes arrive as row changes: the list is patched and the totals adjusted by the amounts
+    // involved, instead of querying everything again. Only a write that isn't described row by
+    // row (a bulk import), or a screen too far behind, loads from scratch.
+
+    private void onExpensesChanged(long version) {
+        // An older value can still be on its way after a reload caught up past it
+        if (appliedVersion >= 0 && version <= appliedVersion) return;
+        List<ExpenseChange> changes = appliedVersion < 0 ? null : repository.getChanges(appliedVersion, version);
+        if (changes == null) {
+            reload();
+            return;
+        }
+        appliedVersion = version;
+        addToTotals(changes);
+        if (currentSearch != null) {
+            // Matches and ranking depend on the text, so the search runs again
+            search(currentSearch);
+            return;
         }
+        adapter.applyChanges(changes, this::belongsToList, pager.isEndReached());
+        updateEmptyState(adapter.getLatestList().isEmpty());
+        if (currentFilter == null) scheduleSnapshot();
     }
-    private boolean isToday(long millis) {
-        Calendar expenseCal = Calendar.getInstance();
-        expenseCal.setTimeInMillis(millis);
 
-        Calendar today = Calendar.getInstance();
+    // Changes already applied to the screen that a load asked for at requestVersion may not
+    // include, or null if they are no longer known. Patching rows is idempotent, so applying
+    // one the load did see is harmless.
+    private List<ExpenseChange> changesSince(long requestVersion) {
+        if (requestVersion >= appliedVersion) return Collections.emptyList();
+        return repository.getChanges(requestVersion, appliedVersion);
+    }
 
-        return expenseCal.get(Calendar.YEAR) == today.get(Calendar.YEAR) &&
-                expenseCal.get(Calendar.DAY_OF_YEAR) == today.get(Calendar.DAY_OF_YEAR);
+    private boolean belongsToList(Expense expense) {
+        return PeriodRanges.contains(rangeOf(currentFilter), expense);
     }
 
-    private boolean isThisWeek(long millis) {
-        Calendar expenseCal = Calendar.getInstance();
-        expenseCal.setTimeInMillis(millis);
+    // [start, end) in millis for a filter, or null (everything) for the full feed
+    private static long[] rangeOf(String filterType) {
+        if (filterType == null) return null;
+        switch (filterType) {
+            case "today":
+                return PeriodRanges.todayRange();
+            case "week":
+                return PeriodRanges.thisWeekRange();
+            case "month":
+                return PeriodRanges.thisMonthRange();
+            default:
+                return null;
+        }
+    }
 
-        Calendar now = Calendar.getInstance();
-        return expenseCal.get(Calendar.YEAR) == now.get(Calendar.YEAR) &&
-                expenseCal.get(Calendar.WEEK_OF_YEAR) == now.get(Calendar.WEEK_OF_YEAR);
+    private void addToTotals(List<ExpenseChange> changes) {
+        List<long[]> ranges = Arrays.asList(rangeOf(currentFilter),
+                PeriodRanges.todayRange(), PeriodRanges.thisWeekRange(), PeriodRanges.thisMonthRange());
+        for (int which = 0; which < totals.length; which++) {
+            if (totals[which] == NOT_LOADED) continue;
+            showTotal(which, PeriodRanges.applyChanges(totals[which], changes, ranges.get(which)));
+        }
     }
 
-    private boolean isThisMonth(long millis) {
-        Calendar expenseCal = Calendar.getInstance();
-        expenseCal.setTimeInMillis(millis);
+    // ✅ TOTALS
+
+    // Loads one total. A write landing while it loads may or may not be counted in the result,
+    // so then it is loaded again rather than guessed at.
+    private void loadTotal(int which, Supplier<LiveData<ExpenseSummary>> request) {
+        String filter = currentFilter;
+        long requestVersion = repository.getChangeVersion();
+        observeOnce(request.get(), this, summary -> {
+            // The header belongs to whichever list was asked for last
+            if (which == TOTAL_HEADER && !Objects.equals(filter, currentFilter)) return;
+            if (summary != null && repository.getChangeVersion() != requestVersion) {
+                loadTotal(which, request);
+                return;
+            }
+            if (summary == null) {
+                totals[which] = NOT_LOADED;
+                setTotalText(which, Money.format(currencyFormat, 0));
+                return;
+            }
+            showTotal(which, summary.getTotal());
+            if (which == TOTAL_HEADER && filter == null) scheduleSnapshot();
+        });
+    }
 
-        Calendar now = Calendar.getInstance();
-        return expenseCal.get(Calendar.YEAR) == now.get(Calendar.YEAR) &&
-                expenseCal.get(Calendar.MONTH) == now.get(Calendar.MONTH);
+    private void showTotal(int which, long total) {
+        totals[which] = total;
+        setTotalText(which, Money.format(currencyFormat, total));
     }
 
-    private double calculateTotal(List<Expense> expenses) {
-        double total = 0;
-        for (Expense expense : expenses) {
-            total += expense.getAmount();
+    private void setTotalText(int which, String amount) {
+        switch (which) {
+            case TOTAL_HEADER:
+                binding.totalAmountTextView.setText(getString(R.string.total_amount, amount));
+                break;
+            case TOTAL_TODAY:
+                binding.todayExpenseTextView.setText(amount);
+                break;
+            case TOTAL_WEEK:
+                binding.weeklyExpenseTextView.setText(amount);
+                break;
+            case TOTAL_MONTH:
+                binding.monthlyExpenseTextView.setText(amount);
+                break;
         }
-        return total;
     }
 
-    private void updateUI(boolean isEmpty, double total) {
-        binding.totalAmountTextView.setText(getString(R.string.total_amount, currencyFormat.format(total)));
-
+    private void updateEmptyState(boolean isEmpty) {
         if (isEmpty) {
             binding.emptyStateView.setVisibility(View.VISIBLE);
             binding.expenseRecyclerView.setVisibility(View.GONE);
@@ -163,19 +437,156 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    // ✅ COLD-START SNAPSHOT
+
+    private void showSnapshot() {
+        MainScreenSnapshot snapshot = MainScreenSnapshot.read(this);
+        if (snapshot == null) return;
+        binding.totalAmountTextView.setText(snapshot.getTotalText());
+        if (snapshot.areCardsCurrent()) {
+            binding.todayExpenseTextView.setText(snapshot.getTodayText());
+            binding.weeklyExpenseTextView.setText(snapshot.getWeekText());
+            binding.monthlyExpenseTextView.setText(snapshot.getMonthText());
+        }
+        adapter.submitList(snapshot.getRows());
+        updateEmptyState(snapshot.getRows().isEmpty());
+        onFirstData();
+    }
+
+    // Saves what the full feed shows once fresh results stop arriving
+    private void scheduleSnapshot() {
+        handler.removeCallbacks(snapshotRunnable);
+        handler.postDelayed(snapshotRunnable, SNAPSHOT_DELAY_MS);
+    }
+
+    private void saveSnapshot() {
+        if (currentFilter != null || currentSearch != null) return;
+        new MainScreenSnapshot(
+                binding.totalAmountTextView.getText().toString(),
+                binding.todayExpenseTextView.getText().toString(),
+                binding.weeklyExpenseTextView.getText().toString(),
+                binding.monthlyExpenseTextView.getText().toString(),
+                adapter.getCurrentList()
+        ).writeInBackground(this);
+    }
+
+    private void onFirstData() {
+        if (timeToFirstDataNanos >= 0) return;
+        timeToFirstDataNanos = System.nanoTime() - createNanos;
+        Log.i(TAG, "Time to first data: " + timeToFirstDataNanos / 1_000_000 + " ms");
+        reportFullyDrawn();
+    }
+
+    // Nanoseconds from the start of onCreate to the first rows being submitted, or -1
+    @VisibleForTesting
+    long getTimeToFirstDataNanos() {
+        return timeToFirstDataNanos;
+    }
+
     private void openSummaryDetail(String filterType) {
         Intent intent = new Intent(MainActivity.this, SummaryDetailActivity.class);
         intent.putExtra("FILTER_TYPE", filterType);
         startActivity(intent);
     }
 
-    private void showErrorSnackbar(String message) {
-        Snackbar.make(binding.getRoot(), message, Snackbar.LENGTH_LONG).show();
+    // ✅ DELETING WITH UNDO
+
+    // Offers undo for deletions still pending from before a recreation, and restores the selection
+    private void restoreDeletions(Bundle savedInstanceState) {
+        if (savedInstanceState != null) {
+            List<Integer> selected = savedInstanceState.getIntegerArrayList(STATE_SELECTED_IDS);
+            if (selected != null && !selected.isEmpty()) {
+                adapter.setSelectedIds(selected);
+            }
+            List<Integer> pending = savedInstanceState.getIntegerArrayList(STATE_PENDING_DELETIONS);
+            if (pending != null && !pending.isEmpty() && repository.getUndoableDeletions().isEmpty()) {
+                repository.deleteLater(pending);
+            }
+        }
+        // Only the newest batch gets a snackbar; older ones have had their chance
+        List<Integer> batches = repository.getUndoableDeletions();
+        for (int i = 0; i < batches.size() - 1; i++) {
+            repository.commitDeletion(batches.get(i));
+        }
+        if (!batches.isEmpty()) {
+            showUndoSnackbar(batches.get(batches.size() - 1));
+        }
     }
 
-    @Override
-    protected void onDestroy() {
-        dbHelper.close();
-        super.onDestroy();
+    private void onSelectionChanged(int count) {
+        if (count == 0) {
+            if (selectionMode != null) selectionMode.finish();
+            return;
+        }
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        if (selectionMode != null) {
+            selectionMode.setTitle(getString(R.string.selected_count, count));
+        }
+    }
+
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_expense_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            if (item.getItemId() == R.id.action_delete_selected) {
+                deleteSelected();
+                return true;
+            }
+            if (item.getItemId() == R.id.action_select_all) {
+                adapter.selectAll();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            selectionMode = null;
+            adapter.clearSelection();
+        }
+    };
+
+    private void deleteSelected() {
+        List<Integer> ids = adapter.getSelectedIds();
+        if (ids.isEmpty()) return;
+        int batch = repository.deleteLater(ids);
+        if (selectionMode != null) selectionMode.finish();
+        showUndoSnackbar(batch);
+    }
+
+    // The rows stay hidden while the snackbar shows and are deleted in one go when it goes
+    // away, unless undone. A new deletion's snackbar replaces this one and commits it.
+    private void showUndoSnackbar(int batch) {
+        int count = repository.getDeletionIds(batch).length;
+        Snackbar.make(binding.getRoot(),
+                        getResources().getQuantityString(R.plurals.expenses_deleted, count, count),
+                        Snackbar.LENGTH_LONG)
+                .setAction(R.string.undo, v -> repository.undoDeletion(batch))
+                .addCallback(new Snackbar.Callback() {
+                    @Override
+                    public void onDismissed(Snackbar snackbar, int event) {
+                        if (event == DISMISS_EVENT_ACTION) return;
+                        // A recreating Activity detaches the snackbar; the next one offers undo again
+                        if (event == DISMISS_EVENT_MANUAL && isChangingConfigurations()) return;
+                        repository.commitDeletion(batch);
+                    }
+                })
+                .show();
+    }
+
+    private void showErrorSnackbar(String message) {
+        Snackbar.make(binding.getRoot(), message, Snackbar.LENGTH_LONG).show();
     }
 }
@@ -2,16 +2,55 @@ package com.example.dailyexpensetracker.ui;
 
 import android.os.Bundle;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
 
 import com.example.dailyexpensetracker.R;
+import com.example.dailyexpensetracker.models.CategoryTotal;
+import com.example.dailyexpensetracker.models.SpendingBreakdown;
+import com.example.dailyexpensetracker.repository.ExpenseRepository;
+import com.example.dailyexpensetracker.utils.Money;
+import com.github.mikephil.charting.charts.BarChart;
+import com.github.mikephil.charting.charts.PieChart;
+import com.github.mikephil.charting.components.XAxis;
+import com.github.mikephil.charting.data.BarData;
+import com.github.mikephil.charting.data.BarDataSet;
+import com.github.mikephil.charting.data.BarEntry;
+import com.github.mikephil.charting.data.PieData;
+import com.github.mikephil.charting.data.PieDataSet;
+import com.github.mikephil.charting.data.PieEntry;
+import com.github.mikephil.charting.formatter.PercentFormatter;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.github.mikephil.charting.utils.ColorTemplate;
 
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static com.example.dailyexpensetracker.utils.LiveDataUtils.observeOnce;
+
+// Spending per category and over time for one period. The figures arrive already grouped by
+// the database, and the time series never has more than DBHelper.MAX_SERIES_POINTS bars.
 public class SummaryDetailActivity extends AppCompatActivity {
 
     public static final String EXTRA_FILTER_TYPE = "FILTER_TYPE";
 
-    private TextView summaryTitleTextView;
+    // The largest categories get their own slice; the rest are added up as "Other"
+    private static final int MAX_PIE_SLICES = 8;
+    // Periods up to about a year label bars by day, longer ones by month
+    private static final int MAX_DAYS_LABELLED_BY_DAY = 366;
+
+    private TextView summaryTitleTextView, summaryTotalTextView;
+    private PieChart categoryChart;
+    private BarChart timeChart;
+    private ExpenseRepository repository;
+    private String filterType;
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -19,9 +58,12 @@ public class SummaryDetailActivity extends AppCompatActivity {
         setContentView(R.layout.activity_summary_detail);
 
         summaryTitleTextView = findViewById(R.id.summaryTitleTextView);
+        summaryTotalTextView = findViewById(R.id.summaryTotalTextView);
+        categoryChart = findViewById(R.id.categoryChart);
+        timeChart = findViewById(R.id.timeChart);
 
         // Get the filter type passed from MainActivity
-        String filterType = getIntent().getStringExtra(EXTRA_FILTER_TYPE);
+        filterType = getIntent().getStringExtra(EXTRA_FILTER_TYPE);
 
         if (filterType == null) {
             filterType = "today"; // Default filter
@@ -38,12 +80,127 @@ public class SummaryDetailActivity extends AppCompatActivity {
             case "month":
                 summaryTitleTextView.setText("This Month's Expense Summary");
                 break;
+            case "all":
+                summaryTitleTextView.setText("All-Time Expense Summary");
+                break;
             default:
                 summaryTitleTextView.setText("Expense Summary");
                 break;
         }
 
-        // TODO: Load and display detailed summary for the selected filterType
-        // You can query your DBHelper here for expenses filtered by filterType
+        setupCharts();
+        repository = ExpenseRepository.getInstance(this);
+        repository.getExpenseChanges().observe(this, version -> loadBreakdown());
+    }
+
+    private void setupCharts() {
+        categoryChart.getDescription().setEnabled(false);
+        categoryChart.setUsePercentValues(true);
+        categoryChart.setNoDataText(getString(R.string.no_expenses));
+
+        timeChart.getDescription().setEnabled(false);
+        timeChart.getLegend().setEnabled(false);
+        timeChart.getAxisRight().setEnabled(false);
+        timeChart.getAxisLeft().setAxisMinimum(0f);
+        timeChart.setNoDataText(getString(R.string.no_expenses));
+        XAxis xAxis = timeChart.getXAxis();
+        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+        xAxis.setGranularity(1f);
+        xAxis.setDrawGridLines(false);
+    }
+
+    private void loadBreakdown() {
+        LiveData<SpendingBreakdown> breakdown;
+        switch (filterType) {
+            case "week":
+                breakdown = repository.getThisWeekBreakdown();
+                break;
+            case "month":
+                breakdown = repository.getThisMonthBreakdown();
+                break;
+            case "all":
+                breakdown = repository.getAllTimeBreakdown();
+                break;
+            default:
+                breakdown = repository.getTodayBreakdown();
+                break;
+        }
+        observeOnce(breakdown, this, this::showBreakdown);
+    }
+
+    private void showBreakdown(SpendingBreakdown breakdown) {
+        if (breakdown == null) {
+            Toast.makeText(this, R.string.summary_failed, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        summaryTotalTextView.setText(getString(R.string.total_amount, Money.format(currencyFormat, breakdown.getTotal())));
+        showCategories(breakdown.getCategories());
+        showSeries(breakdown);
+    }
+
+    private void showCategories(List<CategoryTotal> categories) {
+        if (categories.isEmpty()) {
+            categoryChart.clear();
+            return;
+        }
+        List<PieEntry> entries = new ArrayList<>();
+        long other = 0;
+        for (int i = 0; i < categories.size(); i++) {
+            CategoryTotal category = categories.get(i);
+            // Categories arrive largest first
+            if (i < MAX_PIE_SLICES || categories.size() == MAX_PIE_SLICES + 1) {
+                String label = category.getCategory().isEmpty()
+                        ? getString(R.string.no_category) : category.getCategory();
+                entries.add(new PieEntry(Money.toFloat(category.getTotal()), label));
+            } else {
+                other += category.getTotal();
+            }
+        }
+        if (other > 0) {
+            entries.add(new PieEntry(Money.toFloat(other), getString(R.string.other_categories)));
+        }
+
+        PieDataSet dataSet = new PieDataSet(entries, "");
+        List<Integer> colors = new ArrayList<>();
+        for (int color : ColorTemplate.MATERIAL_COLORS) colors.add(color);
+        for (int color : ColorTemplate.JOYFUL_COLORS) colors.add(color);
+        dataSet.setColors(colors);
+        PieData data = new PieData(dataSet);
+        data.setValueFormatter(new PercentFormatter(categoryChart));
+        categoryChart.setData(data);
+        categoryChart.invalidate();
+    }
+
+    private void showSeries(SpendingBreakdown breakdown) {
+        int buckets = breakdown.getBucketCount();
+        List<BarEntry> entries = new ArrayList<>(buckets);
+        boolean anySpending = false;
+        for (int i = 0; i < buckets; i++) {
+            entries.add(new BarEntry(i, Money.toFloat(breakdown.getBucketTotal(i))));
+            anySpending |= breakdown.getBucketTotal(i) > 0;
+        }
+        if (!anySpending) {
+            timeChart.clear();
+            return;
+        }
+
+        // One formatter for every label, picked by how long the period is
+        String pattern = breakdown.getBucketDays() == 0 ? "HH:mm"
+                : (long) breakdown.getBucketDays() * buckets <= MAX_DAYS_LABELLED_BY_DAY ? "dd MMM" : "MMM yyyy";
+        SimpleDateFormat labelFormat = new SimpleDateFormat(pattern, Locale.getDefault());
+        timeChart.getXAxis().setValueFormatter(new ValueFormatter() {
+            @Override
+            public String getFormattedValue(float value) {
+                int bucket = Math.round(value);
+                if (bucket < 0 || bucket >= buckets) return "";
+                return labelFormat.format(new Date(breakdown.getBucketStartMillis(bucket)));
+            }
+        });
+
+        BarDataSet dataSet = new BarDataSet(entries, "");
+        dataSet.setColor(ColorTemplate.MATERIAL_COLORS[0]);
+        dataSet.setDrawValues(buckets <= 12);
+        timeChart.setData(new BarData(dataSet));
+        timeChart.invalidate();
     }
 }
@@ -0,0 +1,22 @@
+package com.example.dailyexpensetracker.utils;
+
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+
+public final class LiveDataUtils {
+
+    private LiveDataUtils() {}
+
+    // Delivers the first value to observer and then stops observing. Repository results are
+    // single-shot, so this keeps observers from piling up on reloads.
+    public static <T> void observeOnce(LiveData<T> liveData, LifecycleOwner owner, Observer<T> observer) {
+        liveData.observe(owner, new Observer<T>() {
+            @Override
+            public void onChanged(T value) {
+                liveData.removeObserver(this);
+                observer.onChanged(value);
+            }
+        });
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.dailyexpensetracker.database;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.PeriodClock;
+import com.example.dailyexpensetracker.utils.PeriodRanges;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// Checks the store's day-keyed period slices against Expense.isToday / isThisWeek /
+// isThisMonth, which compare instants with PeriodClock's bounds, and its aggregates against
+// sums over the rows. US weeks start on Sunday and French weeks on Monday, so the week slice has to follow
+// the default locale.
+public class ExpenseColumnStoreTest {
+
+    private static final long HOUR = 60L * 60 * 1000;
+    private static final Locale[] LOCALES = {Locale.US, Locale.FRANCE};
+    // Category ids as CategoryCache would hand them out
+    private static final String[] CATEGORIES = {null, "Food", "Travel", "Bills", "New"};
+
+    private Locale savedLocale;
+    private TimeZone savedZone;
+
+    @Before
+    public void setUp() {
+        savedLocale = Locale.getDefault();
+        savedZone = TimeZone.getDefault();
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(savedLocale);
+        PeriodClock.get().refresh();
+        TimeZone.setDefault(savedZone);
+    }
+
+    @Test
+    public void periodsMatchExpenseChecks() {
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            PeriodClock.get().refresh();
+            List<Expense> expenses = expensesAroundNow(new Random(locale.hashCode()), 2000);
+
+            ExpenseColumnStore store = new ExpenseColumnStore();
+            assertTrue(store.load(columnsOf(expenses), store.getVersion()));
+            assertPeriodsMatch(locale.toString(), store, expenses);
+        }
+    }
+
+    @Test
+    public void writesKeepStoreCurrent() {
+        Locale.setDefault(Locale.FRANCE);
+        PeriodClock.get().refresh();
+        Random random = new Random(13);
+        List<Expense> expenses = expensesAroundNow(random, 500);
+        ExpenseColumnStore store = new ExpenseColumnStore();
+        assertTrue(store.load(columnsOf(expenses), store.getVersion()));
+
+        // New rows, rows moved to another day, and deleted rows
+        for (int i = 0; i < 200; i++) {
+            Expense added = new Expense(1000 + i, random.nextInt(500), "New", null, randomDateAroundNow(random));
+            expenses.add(added);
+            store.put(added, categoryIdOf(added));
+
+            Expense moved = new Expense(expenses.get(random.nextInt(expenses.size())));
+            moved.setDate(randomDateAroundNow(random));
+            moved.setAmountPaise(random.nextInt(100000));
+            expenses.set(positionOf(expenses, moved.getId()), moved);
+            store.put(moved, categoryIdOf(moved));
+
+            Expense deleted = expenses.remove(random.nextInt(expenses.size()));
+            store.remove(deleted.getId());
+        }
+        int[] deletedIds = new int[50];
+        for (int i = 0; i < deletedIds.length; i++) {
+            deletedIds[i] = expenses.remove(random.nextInt(expenses.size())).getId();
+        }
+        store.removeAll(deletedIds);
+
+        assertEquals(expenses.size(), store.size());
+        assertPeriodsMatch("after writes", store, expenses);
+        assertAggregatesMatch("after writes", store, expenses);
+    }
+
+    @Test
+    public void zoneChangeRekeysDays() {
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        PeriodClock.get().refresh();
+        List<Expense> expenses = expensesAroundNow(new Random(5), 1000);
+        ExpenseColumnStore store = new ExpenseColumnStore();
+        assertTrue(store.load(columnsOf(expenses), store.getVersion()));
+
+        // As the app's time zone receiver does
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        PeriodClock.get().refresh();
+        assertPeriodsMatch("after zone change", store, expenses);
+        assertAggregatesMatch("after zone change", store, expenses);
+    }
+
+    @Test
+    public void staleLoadIsRejected() {
+        ExpenseColumnStore store = new ExpenseColumnStore();
+        assertNull(store.between(0, Long.MAX_VALUE, id -> CATEGORIES[id], ids -> new HashMap<>()));
+        assertNull(store.summary(Long.MIN_VALUE, Long.MAX_VALUE, null));
+
+        int version = store.getVersion();
+        store.remove(42);
+        assertFalse(store.load(new ExpenseColumnStore.Builder(0), version));
+        assertNull(store.between(0, Long.MAX_VALUE, id -> CATEGORIES[id], ids -> new HashMap<>()));
+    }
+
+    @Test
+    public void aggregatesMatchRows() {
+        Locale.setDefault(Locale.US);
+        PeriodClock.get().refresh();
+        // Shuffled, so the load has to sort
+        List<Expense> expenses = expensesAroundNow(new Random(21), 3000);
+        Collections.shuffle(expenses, new Random(22));
+        ExpenseColumnStore store = new ExpenseColumnStore();
+        assertTrue(store.load(columnsOf(expenses), store.getVersion()));
+        assertAggregatesMatch("loaded", store, expenses);
+    }
+
+    @Test
+    public void notesAreReadOnceForRowsShown() {
+        Locale.setDefault(Locale.US);
+        PeriodClock.get().refresh();
+        List<Expense> expenses = expensesAroundNow(new Random(8), 1000);
+        ExpenseColumnStore store = new ExpenseColumnStore();
+        assertTrue(store.load(columnsOf(expenses), store.getVersion()));
+
+        long[] today = PeriodRanges.todayRange();
+        long startDay = DailyRollup.epochDay(today[0]);
+        long endDay = DailyRollup.epochDay(today[1]);
+        List<Integer> requested = new ArrayList<>();
+        ExpenseColumnStore.NoteLoader loader = ids -> {
+            requested.addAll(ids);
+            return notesOf(expenses, ids);
+        };
+        List<Expense> first = store.between(startDay, endDay, id -> CATEGORIES[id], loader);
+        assertEquals(first.size(), requested.size());
+
+        requested.clear();
+        assertEquals(first, store.between(startDay, endDay, id -> CATEGORIES[id], loader));
+        assertTrue(requested.isEmpty());
+    }
+
+    private static void assertPeriodsMatch(String label, ExpenseColumnStore store, List<Expense> expenses) {
+        assertSlice(label + " today", store, PeriodRanges.todayRange(), expenses, Expense::isToday);
+        assertSlice(label + " week", store, PeriodRanges.thisWeekRange(), expenses, Expense::isThisWeek);
+        assertSlice(label + " month", store, PeriodRanges.thisMonthRange(), expenses, Expense::isThisMonth);
+    }
+
+    private static void assertSlice(String label, ExpenseColumnStore store, long[] range,
+                                    List<Expense> expenses, Predicate<Expense> inPeriod) {
+        List<Expense> expected = new ArrayList<>();
+        for (Expense expense : expenses) {
+            if (inPeriod.test(expense)) expected.add(expense);
+        }
+        // Newest first, ties by id, as the feed orders them
+        expected.sort((a, b) -> {
+            int byDate = Long.compare(b.getDate().getTime(), a.getDate().getTime());
+            return byDate != 0 ? byDate : Integer.compare(b.getId(), a.getId());
+        });
+
+        List<Expense> actual = store.between(DailyRollup.epochDay(range[0]), DailyRollup.epochDay(range[1]),
+                id -> CATEGORIES[id], ids -> notesOf(expenses, ids));
+        assertEquals(label, expected, actual);
+    }
+
+    // Summaries, category totals and buckets for this month, against plain sums over the rows
+    private static void assertAggregatesMatch(String label, ExpenseColumnStore store, List<Expense> expenses) {
+        long[] month = PeriodRanges.thisMonthRange();
+        long startDay = DailyRollup.epochDay(month[0]);
+        long endDay = DailyRollup.epochDay(month[1]);
+        int[] someCategories = {0, 2};
+
+        long[] all = new long[4];
+        long[] filtered = new long[4];
+        long[] categoryTotals = new long[CATEGORIES.length];
+        int[] categoryCounts = new int[CATEGORIES.length];
+        long[] dayBuckets = new long[(int) ((endDay - startDay + 6) / 7)];
+        long[] hourBuckets = new long[24 * 40];
+        for (Expense expense : expenses) {
+            long millis = expense.getDate().getTime();
+            long day = DailyRollup.epochDay(millis);
+            long amount = expense.getAmountPaise();
+            if (millis >= month[0] && millis < month[1]) {
+                accumulate(all, amount);
+                if (Arrays.binarySearch(someCategories, categoryIdOf(expense)) >= 0) accumulate(filtered, amount);
+                hourBuckets[(int) ((millis - month[0]) / HOUR)] += amount;
+            }
+            if (day >= startDay && day < endDay) {
+                categoryTotals[categoryIdOf(expense)] += amount;
+                categoryCounts[categoryIdOf(expense)]++;
+                dayBuckets[(int) ((day - startDay) / 7)] += amount;
+            }
+        }
+
+        assertSummary(label + " summary", all, store.summary(month[0], month[1], null));
+        assertSummary(label + " filtered summary", filtered, store.summary(month[0], month[1], someCategories));
+        assertEquals(label + " all time", expenses.size(), store.summary(Long.MIN_VALUE, Long.MAX_VALUE, null).count);
+
+        long previous = Long.MAX_VALUE;
+        int categoriesSeen = 0;
+        for (ExpenseDao.CategoryTotalRow row : store.categoryTotals(startDay, endDay)) {
+            assertEquals(label + " category " + row.categoryId, categoryTotals[(int) row.categoryId], row.total);
+            assertEquals(label + " category " + row.categoryId, categoryCounts[(int) row.categoryId], row.count);
+            assertTrue(label + " largest first", row.total <= previous);
+            previous = row.total;
+            categoriesSeen++;
+        }
+        int categoriesExpected = 0;
+        for (int count : categoryCounts) {
+            if (count > 0) categoriesExpected++;
+        }
+        assertEquals(label + " every category", categoriesExpected, categoriesSeen);
+
+        assertBuckets(label + " days", dayBuckets, store.dayBuckets(startDay, endDay, 7));
+        assertBuckets(label + " hours", hourBuckets, store.timeBuckets(month[0], month[1], HOUR));
+    }
+
+    private static void accumulate(long[] summary, long amount) {
+        summary[1] += amount;
+        summary[2] = summary[0] == 0 ? amount : Math.min(summary[2], amount);
+        summary[3] = summary[0] == 0 ? amount : Math.max(summary[3], amount);
+        summary[0]++;
+    }
+
+    private static void assertSummary(String label, long[] expected, ExpenseDao.SummaryRow actual) {
+        assertEquals(label, expected[0], actual.count);
+        assertEquals(label, expected[1], actual.total);
+        assertEquals(label, expected[2], actual.min);
+        assertEquals(label, expected[3], actual.max);
+    }
+
+    private static void assertBuckets(String label, long[] expected, List<ExpenseDao.BucketRow> rows) {
+        long[] actual = new long[expected.length];
+        for (ExpenseDao.BucketRow row : rows) {
+            actual[row.bucket] = row.total;
+        }
+        assertTrue(label, Arrays.equals(expected, actual));
+    }
+
+    private static ExpenseColumnStore.Builder columnsOf(List<Expense> expenses) {
+        ExpenseColumnStore.Builder rows = new ExpenseColumnStore.Builder(0);
+        for (Expense expense : expenses) {
+            rows.add(expense.getId(), expense.getDate().getTime(), expense.getAmountPaise(), categoryIdOf(expense));
+        }
+        return rows;
+    }
+
+    private static int categoryIdOf(Expense expense) {
+        for (int id = 1; id < CATEGORIES.length; id++) {
+            if (CATEGORIES[id].equals(expense.getCategory())) return id;
+        }
+        return 0;
+    }
+
+    private static Map<Integer, String> notesOf(List<Expense> expenses, List<Integer> ids) {
+        Map<Integer, String> notes = new HashMap<>();
+        for (Expense expense : expenses) {
+            if (ids.contains(expense.getId())) notes.put(expense.getId(), expense.getNote());
+        }
+        return notes;
+    }
+
+    // Spread over the previous and next few weeks, with several rows sharing some instants
+    private static List<Expense> expensesAroundNow(Random random, int count) {
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Date date = id % 10 == 0 && id > 1
+                    ? expenses.get(id - 2).getDate()
+                    : randomDateAroundNow(random);
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length - 1)];
+            expenses.add(new Expense(id, random.nextInt(100000), category, "note " + id, date));
+        }
+        return expenses;
+    }
+
+    private static Date randomDateAroundNow(Random random) {
+        long offset = (random.nextInt(70 * 24) - 45 * 24) * HOUR + random.nextInt((int) HOUR);
+        return new Date(System.currentTimeMillis() + offset);
+    }
+
+    private static int positionOf(List<Expense> expenses, int id) {
+        for (int i = 0; i < expenses.size(); i++) {
+            if (expenses.get(i).getId() == id) return i;
+        }
+        return -1;
+    }
+}
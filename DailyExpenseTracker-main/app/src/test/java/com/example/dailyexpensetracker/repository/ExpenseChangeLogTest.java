@@ -0,0 +1,69 @@
+package com.example.dailyexpensetracker.repository;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExpenseChangeLogTest {
+
+    private static ExpenseChange inserted(int id) {
+        return ExpenseChange.inserted(new Expense(id, id, "Food", "", new Date(id * 1000L)));
+    }
+
+    @Test
+    public void returnsChangesAfterAVersion() {
+        ExpenseChangeLog log = new ExpenseChangeLog(10);
+        ExpenseChange first = inserted(1);
+        ExpenseChange second = inserted(2);
+        ExpenseChange third = inserted(3);
+        assertEquals(2, log.append(Arrays.asList(first, second)));
+        assertEquals(3, log.append(Collections.singletonList(third)));
+
+        List<ExpenseChange> changes = log.between(1, 3);
+        assertEquals(2, changes.size());
+        assertSame(second, changes.get(0));
+        assertSame(third, changes.get(1));
+        assertEquals(1, log.between(0, 1).size());
+        assertTrue(log.between(3, 3).isEmpty());
+    }
+
+    @Test
+    public void forgetsChangesBeyondCapacity() {
+        ExpenseChangeLog log = new ExpenseChangeLog(2);
+        for (int id = 1; id <= 5; id++) {
+            log.append(Collections.singletonList(inserted(id)));
+        }
+        assertNull(log.between(2, 5));
+        assertEquals(2, log.between(3, 5).size());
+    }
+
+    @Test
+    public void unknownChangesCannotBeCrossed() {
+        ExpenseChangeLog log = new ExpenseChangeLog(10);
+        log.append(Collections.singletonList(inserted(1)));
+        assertEquals(2, log.append(null));
+        log.append(Collections.singletonList(inserted(2)));
+
+        assertNull(log.between(0, 3));
+        assertNull(log.between(1, 3));
+        assertEquals(1, log.between(2, 3).size());
+    }
+
+    @Test
+    public void rejectsVersionsNotYetReached() {
+        ExpenseChangeLog log = new ExpenseChangeLog(10);
+        log.append(Collections.singletonList(inserted(1)));
+        assertNull(log.between(0, 2));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.dailyexpensetracker.ui;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.dailyexpensetracker.R;
+import com.example.dailyexpensetracker.io.MainScreenSnapshot;
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.ExpenseRowFormatter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Time to first data on a cold start: the snapshot has to put rows on screen during onCreate,
+// before any database result can be delivered (LiveData only delivers once the Activity has
+// started). The measured time is logged under this class name and is in the budget assertion's
+// message, so a regression shows the figure.
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class MainActivityStartupTest {
+
+    // Loose enough for a JVM that is also loading resources; losing the snapshot path fails the
+    // row count check before it gets here
+    private static final long TIME_TO_FIRST_DATA_BUDGET_MS = 500;
+    private static final String TAG = "MainActivityStartupTest";
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        MainScreenSnapshot.delete(context);
+    }
+
+    @After
+    public void tearDown() {
+        MainScreenSnapshot.delete(context);
+    }
+
+    @Test
+    public void snapshotPaintsRowsDuringOnCreate() {
+        List<Expense> expenses = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int id = MainScreenSnapshot.MAX_ROWS; id > 0; id--) {
+            expenses.add(new Expense(id, id * 1050L, "Food", "Lunch " + id, new Date(now - id * 3_600_000L)));
+        }
+        new MainScreenSnapshot("Total: ₹2,205.00", "₹100.00", "₹500.00", "₹2,205.00",
+                new ExpenseRowFormatter().format(expenses)).write(context);
+
+        ActivityController<MainActivity> controller = Robolectric.buildActivity(MainActivity.class).create();
+        MainActivity activity = controller.get();
+
+        RecyclerView list = activity.findViewById(R.id.expenseRecyclerView);
+        assertEquals(MainScreenSnapshot.MAX_ROWS, list.getAdapter().getItemCount());
+
+        long timeToFirstDataMs = activity.getTimeToFirstDataNanos() / 1_000_000;
+        Log.i(TAG, "Time to first data from snapshot: " + timeToFirstDataMs + " ms");
+        assertTrue(activity.getTimeToFirstDataNanos() >= 0);
+        assertTrue("Time to first data " + timeToFirstDataMs + " ms",
+                timeToFirstDataMs <= TIME_TO_FIRST_DATA_BUDGET_MS);
+        controller.destroy();
+    }
+
+    @Test
+    public void withoutSnapshotFirstDataWaitsForDatabase() {
+        ActivityController<MainActivity> controller = Robolectric.buildActivity(MainActivity.class).create();
+        assertEquals(-1, controller.get().getTimeToFirstDataNanos());
+        controller.destroy();
+    }
+}
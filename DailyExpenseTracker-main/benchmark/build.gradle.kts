@@ -0,0 +1,31 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+// JMH benchmarks for the :core hot paths. Run them all with
+//     ./gradlew :benchmark:jmh
+// Results are written to build/results/jmh/results.json; narrow the run with
+//     ./gradlew :benchmark:jmh -Pjmh.includes=RowMapping
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    // Fixed iterations and forks so runs on the same machine are comparable
+    warmupIterations.set(3)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    fork.set(2)
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("us")
+    resultFormat.set("JSON")
+    (project.findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
+}
@@ -0,0 +1,41 @@
+package com.example.dailyexpensetracker.benchmark;
+
+import com.example.dailyexpensetracker.models.Expense;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+// Expenses shaped like the app's: a handful of categories, short notes, dates spread over the
+// last few months so every period has some. Seeded, so every run sees the same rows.
+final class BenchmarkData {
+
+    static final String[] CATEGORIES = {"Food", "Travel", "Bills", "Shopping", "Health", "Rent"};
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private BenchmarkData() {}
+
+    // The locale and zone decide week starts and formatting, so pin them for every benchmark
+    static void pinLocale() {
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+    }
+
+    static List<Expense> expenses(int count, long seed) {
+        Random random = new Random(seed);
+        long now = System.currentTimeMillis();
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            long millis = now - (long) (random.nextDouble() * 120 * DAY);
+            String category = random.nextInt(10) == 0 ? null : CATEGORIES[random.nextInt(CATEGORIES.length)];
+            String note = random.nextBoolean() ? null : "note " + id;
+            Expense expense = new Expense(id, 100 + random.nextInt(500_000), category, note, new Date(millis));
+            expense.clearChanges();
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+}
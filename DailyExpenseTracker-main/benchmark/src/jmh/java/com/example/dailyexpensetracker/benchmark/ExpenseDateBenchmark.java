@@ -0,0 +1,82 @@
+package com.example.dailyexpensetracker.benchmark;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.PeriodRanges;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+// Expense's per-row period checks and date formatting, against the [start, end) range check
+// the filters use now. Each invocation covers every expense in the list.
+@State(Scope.Benchmark)
+public class ExpenseDateBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private List<Expense> expenses;
+    private long[] today;
+    private long[] week;
+    private long[] month;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.pinLocale();
+        expenses = BenchmarkData.expenses(size, 1);
+        today = PeriodRanges.todayRange();
+        week = PeriodRanges.thisWeekRange();
+        month = PeriodRanges.thisMonthRange();
+    }
+
+    @Benchmark
+    public int isToday() {
+        int matches = 0;
+        for (Expense expense : expenses) {
+            if (expense.isToday()) matches++;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int isThisWeek() {
+        int matches = 0;
+        for (Expense expense : expenses) {
+            if (expense.isThisWeek()) matches++;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int isThisMonth() {
+        int matches = 0;
+        for (Expense expense : expenses) {
+            if (expense.isThisMonth()) matches++;
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public void getFormattedDate(Blackhole blackhole) {
+        for (Expense expense : expenses) {
+            blackhole.consume(expense.getFormattedDate());
+        }
+    }
+
+    // All three periods from ranges computed once, as the main screen does
+    @Benchmark
+    public int rangeChecks() {
+        int matches = 0;
+        for (Expense expense : expenses) {
+            if (PeriodRanges.contains(today, expense)) matches++;
+            if (PeriodRanges.contains(week, expense)) matches++;
+            if (PeriodRanges.contains(month, expense)) matches++;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.dailyexpensetracker.benchmark;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+import com.example.dailyexpensetracker.utils.PeriodRanges;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+// The main screen's list filtering and totals: the old way, filtering every expense with
+// Expense.isThisMonth and adding up what passed, against the range check on the same list,
+// and against adjusting loaded totals by a batch of writes the way the change feed does.
+@State(Scope.Benchmark)
+public class MainScreenBenchmark {
+
+    private static final int CHANGES = 20;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private List<Expense> expenses;
+    private List<ExpenseChange> changes;
+    private long[][] ranges;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.pinLocale();
+        expenses = BenchmarkData.expenses(size, 3);
+        ranges = new long[][]{null, PeriodRanges.todayRange(), PeriodRanges.thisWeekRange(),
+                PeriodRanges.thisMonthRange()};
+
+        // A mix of inserts, edits that move an expense between periods, and deletes
+        Random random = new Random(4);
+        changes = new ArrayList<>(CHANGES);
+        for (int i = 0; i < CHANGES; i++) {
+            Expense existing = expenses.get(random.nextInt(size));
+            switch (i % 3) {
+                case 0:
+                    changes.add(ExpenseChange.inserted(new Expense(size + i, 5_000, "Food", null, new Date())));
+                    break;
+                case 1:
+                    Expense moved = new Expense(existing);
+                    moved.setDate(new Date());
+                    changes.add(ExpenseChange.updated(existing, moved));
+                    break;
+                default:
+                    changes.add(ExpenseChange.deleted(existing));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public long filterAndTotalWithCalendar() {
+        List<Expense> month = new ArrayList<>();
+        long total = 0;
+        for (Expense expense : expenses) {
+            if (expense.isThisMonth()) {
+                month.add(expense);
+                total += expense.getAmountPaise();
+            }
+        }
+        return total + month.size();
+    }
+
+    @Benchmark
+    public long filterAndTotalWithRange() {
+        long[] range = PeriodRanges.thisMonthRange();
+        List<Expense> month = new ArrayList<>();
+        long total = 0;
+        for (Expense expense : expenses) {
+            if (PeriodRanges.contains(range, expense)) {
+                month.add(expense);
+                total += expense.getAmountPaise();
+            }
+        }
+        return total + month.size();
+    }
+
+    // The header and three cards, each moved by the same batch of changes
+    @Benchmark
+    public long applyChangesToTotals() {
+        long sum = 0;
+        for (long[] range : ranges) {
+            sum += PeriodRanges.applyChanges(0, changes, range);
+        }
+        return sum;
+    }
+}
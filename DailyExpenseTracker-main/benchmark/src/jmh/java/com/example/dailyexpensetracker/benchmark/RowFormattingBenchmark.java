@@ -0,0 +1,44 @@
+package com.example.dailyexpensetracker.benchmark;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseRow;
+import com.example.dailyexpensetracker.utils.ExpenseRowFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+// Rendering a screen of list rows the way ExpenseAdapter receives them: "cold" formats every
+// row with a fresh formatter, as on the first load; "warm" reformats the same list, as on a
+// reload where nothing changed, and should only look rows up.
+@State(Scope.Benchmark)
+public class RowFormattingBenchmark {
+
+    @Param({"50", "1000"})
+    public int size;
+
+    private List<Expense> expenses;
+    private ExpenseRowFormatter warmFormatter;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.pinLocale();
+        expenses = BenchmarkData.expenses(size, 5);
+        warmFormatter = new ExpenseRowFormatter();
+        warmFormatter.format(expenses);
+    }
+
+    @Benchmark
+    public List<ExpenseRow> cold() {
+        return new ExpenseRowFormatter().format(expenses);
+    }
+
+    @Benchmark
+    public List<ExpenseRow> warm() {
+        return warmFormatter.format(expenses);
+    }
+}
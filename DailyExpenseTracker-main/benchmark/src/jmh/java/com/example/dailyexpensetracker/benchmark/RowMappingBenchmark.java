@@ -0,0 +1,103 @@
+package com.example.dailyexpensetracker.benchmark;
+
+import com.example.dailyexpensetracker.database.ExpenseRowReader;
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.TimeZone;
+
+// Mapping query rows to Expense objects through ExpenseRowReader, over rows held in memory the
+// way a CursorWindow holds them, so the figure is the mapping alone. "millis" rows carry
+// date_millis and a category id, as the current schema does; "text" rows only have the date
+// text and category name, as tables from before the date_millis column do.
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+    private static final int ID = 0;
+    private static final int CATEGORY = 1;
+    private static final int NOTE = 2;
+    private static final int AMOUNT = 3;
+    private static final int DATE = 4;
+    private static final int DATE_MILLIS = 5;
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"millis", "text"})
+    public String dates;
+
+    private Object[][] table;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.pinLocale();
+        TimeZone zone = TimeZone.getDefault();
+        List<Expense> expenses = BenchmarkData.expenses(rows, 2);
+        table = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            Expense expense = expenses.get(i);
+            long millis = expense.getDate().getTime();
+            Object category = "millis".equals(dates) ? (Object) categoryId(expense.getCategory()) : expense.getCategory();
+            table[i] = new Object[]{
+                    (long) expense.getId(), category, expense.getNote(), expense.getAmountPaise(),
+                    ExpenseTimestamps.format(millis, zone), "millis".equals(dates) ? millis : null};
+        }
+    }
+
+    @Benchmark
+    public void map(Blackhole blackhole) {
+        boolean byMillis = "millis".equals(dates);
+        ExpenseRowReader reader = new ExpenseRowReader(ID, AMOUNT,
+                byMillis ? ExpenseRowReader.ABSENT : CATEGORY,
+                byMillis ? CATEGORY : ExpenseRowReader.ABSENT,
+                NOTE, DATE, byMillis ? DATE_MILLIS : ExpenseRowReader.ABSENT,
+                id -> BenchmarkData.CATEGORIES[(int) id - 1]);
+        TableRow row = new TableRow();
+        for (Object[] values : table) {
+            row.values = values;
+            Expense expense = reader.read(row);
+            blackhole.consume(expense);
+        }
+    }
+
+    private static Long categoryId(String name) {
+        if (name == null) return null;
+        for (int i = 0; i < BenchmarkData.CATEGORIES.length; i++) {
+            if (BenchmarkData.CATEGORIES[i].equals(name)) return (long) i + 1;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    // A row of boxed values, standing in for the cursor
+    private static final class TableRow implements ExpenseRowReader.Row {
+        Object[] values;
+
+        @Override
+        public boolean isNull(int column) {
+            return values[column] == null;
+        }
+
+        @Override
+        public int getInt(int column) {
+            return ((Long) values[column]).intValue();
+        }
+
+        @Override
+        public long getLong(int column) {
+            return (Long) values[column];
+        }
+
+        @Override
+        public String getString(int column) {
+            return (String) values[column];
+        }
+    }
+}
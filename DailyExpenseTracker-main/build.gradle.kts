@@ -8,6 +8,7 @@ buildscript {
 plugins {
     alias(libs.plugins.android.application) apply false
     alias(libs.plugins.kotlin.android) apply false
+    alias(libs.plugins.jmh) apply false
 }
 
 tasks.register("clean", Delete::class) {
@@ -0,0 +1,14 @@
+plugins {
+    `java-library`
+}
+
+// Plain Java, no Android: the app's models, formatting, row mapping and period arithmetic,
+// so they can be unit tested and benchmarked on the JVM
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
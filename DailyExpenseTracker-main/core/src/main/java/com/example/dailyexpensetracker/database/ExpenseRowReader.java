@@ -0,0 +1,103 @@
+package com.example.dailyexpensetracker.database;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.function.LongFunction;
+
+// Turns one row of expense columns into an Expense. The column positions are resolved once by
+// the caller (ExpenseRowMapper does it by name on a Cursor), so create one per query and reuse
+// it for every row. Android-free: a row is anything with Cursor-style getters.
+// The date comes from the date_millis column when there is one and it is set, otherwise from
+// the date text. The category is a name looked up by id, or read as text from tables from
+// before categories had their own table.
+public final class ExpenseRowReader {
+
+    // Position of a column the row doesn't have
+    public static final int ABSENT = -1;
+
+    // The getters a row needs, named as on android.database.Cursor
+    public interface Row {
+        boolean isNull(int column);
+
+        int getInt(int column);
+
+        long getLong(int column);
+
+        String getString(int column);
+    }
+
+    private final int idColumn;
+    private final int amountColumn;
+    private final int categoryColumn;
+    private final int categoryIdColumn;
+    private final int noteColumn;
+    private final int dateColumn;
+    private final int dateMillisColumn;
+    private final LongFunction<String> categoryNames;
+    private final TimeZone zone = TimeZone.getDefault();
+
+    private int parseFailures;
+
+    // Exactly one of categoryColumn and categoryIdColumn is present; categoryNames is only used
+    // (and may otherwise be null) for the id. At least one of the date columns is present.
+    public ExpenseRowReader(int idColumn, int amountColumn, int categoryColumn, int categoryIdColumn,
+                            int noteColumn, int dateColumn, int dateMillisColumn,
+                            LongFunction<String> categoryNames) {
+        if (categoryColumn == ABSENT && (categoryIdColumn == ABSENT || categoryNames == null)) {
+            throw new IllegalArgumentException("Reading category_id needs category names");
+        }
+        if (dateColumn == ABSENT && dateMillisColumn == ABSENT) {
+            throw new IllegalArgumentException("Row has neither date nor date_millis");
+        }
+        this.idColumn = idColumn;
+        this.amountColumn = amountColumn;
+        this.categoryColumn = categoryColumn;
+        this.categoryIdColumn = categoryIdColumn;
+        this.noteColumn = noteColumn;
+        this.dateColumn = dateColumn;
+        this.dateMillisColumn = dateMillisColumn;
+        this.categoryNames = categoryNames;
+    }
+
+    // The expense in row, or null if its date cannot be read
+    public Expense read(Row row) {
+        long dateMillis = readDateMillis(row);
+        if (dateMillis == ExpenseTimestamps.INVALID) {
+            parseFailures++;
+            return null;
+        }
+        Expense expense = new Expense(
+                row.getInt(idColumn),
+                row.getLong(amountColumn),
+                readCategory(row),
+                row.getString(noteColumn),
+                new Date(dateMillis)
+        );
+        // Matches the row, so a later save writes only what is edited
+        expense.clearChanges();
+        return expense;
+    }
+
+    // Rows read() returned null for
+    public int getParseFailures() {
+        return parseFailures;
+    }
+
+    private String readCategory(Row row) {
+        if (categoryColumn != ABSENT) return row.getString(categoryColumn);
+        return row.isNull(categoryIdColumn) ? null : categoryNames.apply(row.getLong(categoryIdColumn));
+    }
+
+    private long readDateMillis(Row row) {
+        if (dateMillisColumn != ABSENT && !row.isNull(dateMillisColumn)) {
+            return row.getLong(dateMillisColumn);
+        }
+        if (dateColumn != ABSENT) {
+            return ExpenseTimestamps.parse(row.getString(dateColumn), zone);
+        }
+        return ExpenseTimestamps.INVALID;
+    }
+}
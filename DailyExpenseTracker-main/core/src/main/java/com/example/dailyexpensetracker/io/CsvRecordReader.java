@@ -0,0 +1,83 @@
+package com.example.dailyexpensetracker.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads CSV one record at a time: RFC 4180 style fields split on commas, with "" for a quote
+// inside a quoted field, and quoted fields that run over several lines (as ExpenseExportWriter
+// writes a note with a line break). Only the current record is held. Not thread-safe.
+public class CsvRecordReader {
+
+    private final BufferedReader reader;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private final StringBuilder text = new StringBuilder();
+    private long lineNumber;
+    private long startLine;
+
+    public CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    // Fields of the next record, in a list reused by the next call, or null at the end of the
+    // input. A blank line is one empty field. A quote left open at the end of the input ends there.
+    public List<String> next() throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        lineNumber++;
+        startLine = lineNumber;
+        fields.clear();
+        field.setLength(0);
+        text.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            text.append(line);
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted || (line = reader.readLine()) == null) break;
+            // The line break belongs to the quoted field
+            lineNumber++;
+            field.append('\n');
+            text.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // The current record as it appeared in the input, its lines joined by '\n'
+    public String getText() {
+        return text.toString();
+    }
+
+    // 1-based line the current record started on
+    public long getStartLine() {
+        return startLine;
+    }
+
+    // Lines read so far, counting every line of a record that spans several
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
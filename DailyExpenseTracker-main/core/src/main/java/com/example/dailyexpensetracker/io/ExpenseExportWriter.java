@@ -0,0 +1,147 @@
+package com.example.dailyexpensetracker.io;
+
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+import com.example.dailyexpensetracker.utils.Money;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.TimeZone;
+
+// Writes expenses one at a time as CSV or JSON. Dates and amounts go through char buffers held
+// by the writer and notes arrive as a char range, so a row allocates nothing and an export of
+// any size runs in constant memory. Not thread-safe; use one writer per export.
+//
+// CSV has the header and columns CsvExpenseImporter reads back: date, category, note, amount.
+// A field with a comma, quote or line break is quoted; CsvRecordReader reads a quoted line
+// break back as '\n'.
+// JSON is an array with one object a line:
+//   {"date":"2024-05-01 09:30:00","category":"Food","note":"Lunch","amount":120.50}
+// with null for a missing category or note. Dates are local to the zone given; amounts are
+// rupees with exactly two decimals.
+public class ExpenseExportWriter {
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final Format format;
+    private final TimeZone zone;
+    private final char[] date = new char[ExpenseTimestamps.FORMATTED_LENGTH];
+    private final char[] amount = new char[Money.MAX_PLAIN_LENGTH];
+    private long rows;
+
+    // out should be buffered; the writer makes one call per field
+    public ExpenseExportWriter(Writer out, Format format, TimeZone zone) {
+        this.out = out;
+        this.format = format;
+        this.zone = zone;
+    }
+
+    public void begin() throws IOException {
+        if (format == Format.CSV) {
+            out.write("date,category,note,amount\n");
+        } else {
+            out.write("[\n");
+        }
+    }
+
+    // note is note[0..noteLength), or null for no note; category is null for none
+    public void write(long dateMillis, String category, char[] note, int noteLength, long amountPaise)
+            throws IOException {
+        ExpenseTimestamps.format(dateMillis, zone, date);
+        int amountLength = Money.toPlainChars(amountPaise, amount);
+        if (format == Format.CSV) {
+            out.write(date);
+            out.write(',');
+            if (category != null) writeCsv(category, null, category.length());
+            out.write(',');
+            if (note != null) writeCsv(null, note, noteLength);
+            out.write(',');
+            out.write(amount, 0, amountLength);
+            out.write('\n');
+        } else {
+            out.write(rows == 0 ? "{\"date\":\"" : ",\n{\"date\":\"");
+            out.write(date);
+            out.write("\",\"category\":");
+            if (category != null) writeJson(category, null, category.length());
+            else out.write("null");
+            out.write(",\"note\":");
+            if (note != null) writeJson(null, note, noteLength);
+            else out.write("null");
+            out.write(",\"amount\":");
+            out.write(amount, 0, amountLength);
+            out.write('}');
+        }
+        rows++;
+    }
+
+    // Closes the JSON array and flushes; the caller closes out
+    public void end() throws IOException {
+        if (format == Format.JSON) {
+            out.write(rows == 0 ? "]\n" : "\n]\n");
+        }
+        out.flush();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    // Quoted only when it has to be, with "" for a quote, as the importer splits it
+    private void writeCsv(String text, char[] chars, int length) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < length && !quote; i++) {
+            char c = text != null ? text.charAt(i) : chars[i];
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            if (text != null) out.write(text);
+            else out.write(chars, 0, length);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < length; i++) {
+            char c = text != null ? text.charAt(i) : chars[i];
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private void writeJson(String text, char[] chars, int length) throws IOException {
+        out.write('"');
+        for (int i = 0; i < length; i++) {
+            char c = text != null ? text.charAt(i) : chars[i];
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write("\\u00");
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xf]);
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
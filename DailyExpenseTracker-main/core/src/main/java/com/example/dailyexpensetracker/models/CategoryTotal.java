@@ -0,0 +1,28 @@
+package com.example.dailyexpensetracker.models;
+
+// Spending in one category over a period, in paise. Uncategorised expenses have the category "".
+// Immutable.
+public class CategoryTotal {
+
+    private final String category;
+    private final long total;
+    private final int count;
+
+    public CategoryTotal(String category, long total, int count) {
+        this.category = category;
+        this.total = total;
+        this.count = count;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.dailyexpensetracker.models;
+
+import com.example.dailyexpensetracker.utils.PeriodClock;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+
+public class Expense {
+    // Flags for getChangedFields
+    public static final int FIELD_AMOUNT = 1;
+    public static final int FIELD_CATEGORY = 1 << 1;
+    public static final int FIELD_NOTE = 1 << 2;
+    public static final int FIELD_DATE = 1 << 3;
+    private static final int ALL_FIELDS = FIELD_AMOUNT | FIELD_CATEGORY | FIELD_NOTE | FIELD_DATE;
+
+    private int id;
+    // In paise; see Money
+    private long amountPaise;
+    private String category;
+    private String note;
+    private Date date;
+    // Fields set to a new value since the expense was read or saved. An expense built in code
+    // counts as entirely changed, so saving it writes every field.
+    private int changedFields = ALL_FIELDS;
+
+    // Empty constructor
+    public Expense() {}
+
+    // Constructor with all fields including id
+    public Expense(int id, long amountPaise, String category, String note, Date date) {
+        this.id = id;
+        this.amountPaise = amountPaise;
+        this.category = category;
+        this.note = note;
+        this.date = date;
+    }
+
+    // Constructor without id (for new expenses)
+    public Expense(long amountPaise, String category, String note, Date date) {
+        this.amountPaise = amountPaise;
+        this.category = category;
+        this.note = note;
+        this.date = date;
+    }
+
+    // Constructor that accepts date as String
+    public Expense(long amountPaise, String category, String note, String dateString) {
+        this.amountPaise = amountPaise;
+        this.category = category;
+        this.note = note;
+        setDate(dateString);
+    }
+
+    // Copy constructor
+    public Expense(Expense other) {
+        this.id = other.id;
+        this.amountPaise = other.amountPaise;
+        this.category = other.category;
+        this.note = other.note;
+        this.date = other.date != null ? new Date(other.date.getTime()) : null;
+        this.changedFields = other.changedFields;
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public long getAmountPaise() {
+        return amountPaise;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    // Get formatted date string
+    public String getFormattedDate() {
+        if (date == null) return "";
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+        return sdf.format(date);
+    }
+
+    // Setters
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    // Setters only mark a field changed when the value actually differs
+    public void setAmountPaise(long amountPaise) {
+        if (this.amountPaise != amountPaise) changedFields |= FIELD_AMOUNT;
+        this.amountPaise = amountPaise;
+    }
+
+    public void setCategory(String category) {
+        if (!Objects.equals(this.category, category)) changedFields |= FIELD_CATEGORY;
+        this.category = category;
+    }
+
+    public void setNote(String note) {
+        if (!Objects.equals(this.note, note)) changedFields |= FIELD_NOTE;
+        this.note = note;
+    }
+
+    public void setDate(Date date) {
+        if (!Objects.equals(this.date, date)) changedFields |= FIELD_DATE;
+        this.date = date;
+    }
+
+    // Set date from string
+    public void setDate(String dateString) {
+        Date parsed;
+        try {
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+            parsed = sdf.parse(dateString);
+        } catch (Exception e) {
+            parsed = new Date(); // Current date as fallback
+        }
+        setDate(parsed);
+    }
+
+    // ✅ CHANGE TRACKING
+
+    // FIELD_* flags of the fields changed since the expense was read or last saved
+    public int getChangedFields() {
+        return changedFields;
+    }
+
+    // True if any of the given FIELD_* flags is changed
+    public boolean isChanged(int field) {
+        return (changedFields & field) != 0;
+    }
+
+    public boolean hasChanges() {
+        return changedFields != 0;
+    }
+
+    // Marks every field as matching the database, after reading or saving the expense
+    public void clearChanges() {
+        changedFields = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Expense{" +
+                "id=" + id +
+                ", amountPaise=" + amountPaise +
+                ", category='" + category + '\'' +
+                ", note='" + note + '\'' +
+                ", date=" + getFormattedDate() +
+                '}';
+    }
+
+    // Equal when every stored field matches, so list diffs can tell an edited row from an
+    // unchanged one. Expenses are mutable: don't change one while it is a key in a hash.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Expense)) return false;
+        Expense other = (Expense) o;
+        return id == other.id
+                && amountPaise == other.amountPaise
+                && Objects.equals(category, other.category)
+                && Objects.equals(note, other.note)
+                && Objects.equals(date, other.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, amountPaise, category, note, date);
+    }
+
+    // ✅ NEWLY ADDED METHODS
+
+    // Period checks against PeriodClock's shared bounds: two comparisons, nothing allocated.
+    // An expense without a date is in no period.
+
+    public boolean isToday() {
+        return date != null && PeriodClock.get().isToday(date.getTime());
+    }
+
+    public boolean isThisWeek() {
+        return date != null && PeriodClock.get().isThisWeek(date.getTime());
+    }
+
+    public boolean isThisMonth() {
+        return date != null && PeriodClock.get().isThisMonth(date.getTime());
+    }
+
+    // Get date as String for database (yyyy-MM-dd)
+    public String getDateStringForDatabase() {
+        if (date == null) return "";
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+        return sdf.format(date);
+    }
+}
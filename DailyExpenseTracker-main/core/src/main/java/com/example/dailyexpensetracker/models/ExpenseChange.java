@@ -0,0 +1,59 @@
+package com.example.dailyexpensetracker.models;
+
+// One committed write to an expense, as reported by DBHelper: the row before and after it.
+// before is null for an insert and after is null for a delete. The repository adds the
+// rendered list row for after, so screens can show it without formatting. Immutable.
+public class ExpenseChange {
+
+    public enum Type { INSERTED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Expense before;
+    private final Expense after;
+    private final ExpenseRow afterRow;
+
+    private ExpenseChange(Type type, Expense before, Expense after, ExpenseRow afterRow) {
+        this.type = type;
+        this.before = before;
+        this.after = after;
+        this.afterRow = afterRow;
+    }
+
+    public static ExpenseChange inserted(Expense after) {
+        return new ExpenseChange(Type.INSERTED, null, after, null);
+    }
+
+    public static ExpenseChange updated(Expense before, Expense after) {
+        return new ExpenseChange(Type.UPDATED, before, after, null);
+    }
+
+    public static ExpenseChange deleted(Expense before) {
+        return new ExpenseChange(Type.DELETED, before, null, null);
+    }
+
+    // The same change carrying the rendered row for after
+    public ExpenseChange withAfterRow(ExpenseRow row) {
+        return new ExpenseChange(type, before, after, row);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public Expense getBefore() {
+        return before;
+    }
+
+    public Expense getAfter() {
+        return after;
+    }
+
+    // Null for deletes, and until the repository has rendered it
+    public ExpenseRow getAfterRow() {
+        return afterRow;
+    }
+}
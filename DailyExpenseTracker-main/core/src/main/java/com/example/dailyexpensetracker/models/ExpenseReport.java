@@ -0,0 +1,29 @@
+package com.example.dailyexpensetracker.models;
+
+import java.util.List;
+
+// Spending month by month or year by year, built by ReportEngine. Immutable.
+public class ExpenseReport {
+
+    public enum Granularity {
+        MONTH,
+        YEAR
+    }
+
+    private final Granularity granularity;
+    private final List<ReportPeriod> periods;
+
+    public ExpenseReport(Granularity granularity, List<ReportPeriod> periods) {
+        this.granularity = granularity;
+        this.periods = periods;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    // Oldest first, with no gaps; periods with no spending are included
+    public List<ReportPeriod> getPeriods() {
+        return periods;
+    }
+}
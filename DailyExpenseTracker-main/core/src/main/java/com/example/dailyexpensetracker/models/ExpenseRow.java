@@ -0,0 +1,65 @@
+package com.example.dailyexpensetracker.models;
+
+import java.util.Objects;
+
+// An expense together with the text its list row shows, rendered once off the main thread so
+// binding a row only assigns strings. Immutable; build one with ExpenseRowFormatter.
+public final class ExpenseRow {
+
+    private final Expense expense;
+    private final String categoryText;
+    private final String noteText;
+    private final String amountText;
+    private final String dateText;
+
+    public ExpenseRow(Expense expense, String categoryText, String noteText, String amountText, String dateText) {
+        this.expense = expense;
+        this.categoryText = categoryText;
+        this.noteText = noteText;
+        this.amountText = amountText;
+        this.dateText = dateText;
+    }
+
+    // The expense as it was read; treat it as read-only
+    public Expense getExpense() {
+        return expense;
+    }
+
+    public int getId() {
+        return expense.getId();
+    }
+
+    public String getCategoryText() {
+        return categoryText;
+    }
+
+    public String getNoteText() {
+        return noteText;
+    }
+
+    public String getAmountText() {
+        return amountText;
+    }
+
+    public String getDateText() {
+        return dateText;
+    }
+
+    // Equal when the expense and every rendered string match, so a locale change redraws rows
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExpenseRow)) return false;
+        ExpenseRow other = (ExpenseRow) o;
+        return expense.equals(other.expense)
+                && categoryText.equals(other.categoryText)
+                && noteText.equals(other.noteText)
+                && amountText.equals(other.amountText)
+                && dateText.equals(other.dateText);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(expense, categoryText, noteText, amountText, dateText);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.dailyexpensetracker.models;
+
+// The ids of every expense matching a search, best match first. Only ids are held, so a large
+// result costs four bytes a row; the expenses themselves are loaded a page at a time. Immutable.
+public class ExpenseSearchResult {
+
+    private final String query;
+    private final int[] rankedIds;
+
+    public ExpenseSearchResult(String query, int[] rankedIds) {
+        this.query = query;
+        this.rankedIds = rankedIds;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int size() {
+        return rankedIds.length;
+    }
+
+    public int idAt(int position) {
+        return rankedIds[position];
+    }
+
+    // Position of the expense in the ranking, or -1 if it is not in the result
+    public int positionOf(int id) {
+        for (int i = 0; i < rankedIds.length; i++) {
+            if (rankedIds[i] == id) return i;
+        }
+        return -1;
+    }
+}
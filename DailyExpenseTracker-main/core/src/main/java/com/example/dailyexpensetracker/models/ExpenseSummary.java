@@ -0,0 +1,50 @@
+package com.example.dailyexpensetracker.models;
+
+// Aggregate figures for a set of expenses, computed in one query. Amounts are in paise. Immutable.
+public class ExpenseSummary {
+    public static final ExpenseSummary EMPTY = new ExpenseSummary(0, 0, 0, 0);
+
+    private final int count;
+    private final long total;
+    private final long min;
+    private final long max;
+
+    public ExpenseSummary(int count, long total, long min, long max) {
+        this.count = count;
+        this.total = total;
+        this.min = min;
+        this.max = max;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    // Smallest and largest single expense; 0 when there are none
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    // Not a whole number of paise in general, so it is left to the caller to round
+    public double getAverage() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseSummary{" +
+                "count=" + count +
+                ", total=" + total +
+                ", min=" + min +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.dailyexpensetracker.models;
+
+// Spending on one note over a period, in paise, e.g. every "Lunch" in a month. Immutable.
+public class NoteTotal {
+
+    private final String note;
+    private final long total;
+    private final int count;
+
+    public NoteTotal(String note, long total, int count) {
+        this.note = note;
+        this.total = total;
+        this.count = count;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
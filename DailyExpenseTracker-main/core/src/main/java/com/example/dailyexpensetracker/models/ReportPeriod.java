@@ -0,0 +1,82 @@
+package com.example.dailyexpensetracker.models;
+
+import java.util.List;
+
+// One month or year of a report: local epoch days [startDay, endDay) and what was spent in
+// them. Amounts are in paise. Immutable.
+public class ReportPeriod {
+
+    private final long startDay;
+    private final long endDay;
+    private final int count;
+    private final long total;
+    private final long previousTotal;
+    private final long median;
+    private final long percentile90;
+    private final List<CategoryTotal> categories;
+    private final List<NoteTotal> topNotes;
+
+    public ReportPeriod(long startDay, long endDay, int count, long total, long previousTotal,
+                        long median, long percentile90, List<CategoryTotal> categories,
+                        List<NoteTotal> topNotes) {
+        this.startDay = startDay;
+        this.endDay = endDay;
+        this.count = count;
+        this.total = total;
+        this.previousTotal = previousTotal;
+        this.median = median;
+        this.percentile90 = percentile90;
+        this.categories = categories;
+        this.topNotes = topNotes;
+    }
+
+    public long getStartDay() {
+        return startDay;
+    }
+
+    public long getEndDay() {
+        return endDay;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    // Total of the period just before this one, which may be outside the report
+    public long getPreviousTotal() {
+        return previousTotal;
+    }
+
+    public long getChange() {
+        return total - previousTotal;
+    }
+
+    // Change on the previous period as a percentage; NaN when nothing was spent in it
+    public double getChangePercent() {
+        return previousTotal == 0 ? Double.NaN : 100.0 * (total - previousTotal) / previousTotal;
+    }
+
+    // Middle single expense (the lower of the two for an even count); 0 when there are none
+    public long getMedian() {
+        return median;
+    }
+
+    // Single expense that 90% of the period's expenses are at or below; 0 when there are none
+    public long getPercentile90() {
+        return percentile90;
+    }
+
+    // Largest first
+    public List<CategoryTotal> getCategories() {
+        return categories;
+    }
+
+    // Notes with the most spending, largest first; blank notes are left out
+    public List<NoteTotal> getTopNotes() {
+        return topNotes;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.dailyexpensetracker.models;
+
+import java.util.List;
+
+// What the summary detail screen charts for a period: spending per category, largest first,
+// and a spending-over-time series of at most a fixed number of buckets however long the
+// period is. Empty buckets are included with a total of 0. Amounts are in paise. Immutable.
+public class SpendingBreakdown {
+
+    private final List<CategoryTotal> categories;
+    private final long[] bucketStartMillis;
+    private final long[] bucketTotals;
+    private final int bucketDays;
+
+    public SpendingBreakdown(List<CategoryTotal> categories, long[] bucketStartMillis,
+                             long[] bucketTotals, int bucketDays) {
+        this.categories = categories;
+        this.bucketStartMillis = bucketStartMillis;
+        this.bucketTotals = bucketTotals;
+        this.bucketDays = bucketDays;
+    }
+
+    public List<CategoryTotal> getCategories() {
+        return categories;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (CategoryTotal category : categories) {
+            total += category.getTotal();
+        }
+        return total;
+    }
+
+    public int getBucketCount() {
+        return bucketTotals.length;
+    }
+
+    public long getBucketStartMillis(int bucket) {
+        return bucketStartMillis[bucket];
+    }
+
+    public long getBucketTotal(int bucket) {
+        return bucketTotals[bucket];
+    }
+
+    // Days covered by each bucket, or 0 when the period is a single day split into hours
+    public int getBucketDays() {
+        return bucketDays;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.dailyexpensetracker.utils;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseRow;
+
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+// Renders expenses into list rows with one shared currency and date format, and keeps the most
+// recently rendered rows by expense id so a reload only formats rows that are new or edited.
+// Meant for background threads; calls are serialised because the formats are not thread-safe.
+public final class ExpenseRowFormatter {
+
+    // Several screens' worth of scrolled history; a row is a few hundred bytes
+    private static final int MAX_CACHED_ROWS = 2000;
+
+    private final Map<Integer, ExpenseRow> cache = new LinkedHashMap<Integer, ExpenseRow>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ExpenseRow> eldest) {
+            return size() > MAX_CACHED_ROWS;
+        }
+    };
+
+    private Locale locale;
+    private TimeZone zone;
+    private NumberFormat currencyFormat;
+    private SimpleDateFormat dateFormat;
+
+    public synchronized List<ExpenseRow> format(List<Expense> expenses) {
+        refreshFormats();
+        List<ExpenseRow> rows = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            ExpenseRow row = cache.get(expense.getId());
+            if (row == null || !row.getExpense().equals(expense)) {
+                row = render(expense);
+                cache.put(expense.getId(), row);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private ExpenseRow render(Expense expense) {
+        return new ExpenseRow(expense,
+                expense.getCategory() != null ? expense.getCategory() : "No Category",
+                expense.getNote() != null ? expense.getNote() : "",
+                Money.format(currencyFormat, expense.getAmountPaise()),
+                expense.getDate() != null ? dateFormat.format(expense.getDate()) : "No Date");
+    }
+
+    // Cached text is only valid for the locale and time zone it was rendered in
+    private void refreshFormats() {
+        Locale currentLocale = Locale.getDefault();
+        TimeZone currentZone = TimeZone.getDefault();
+        if (currentLocale.equals(locale) && currentZone.getID().equals(zone.getID())) {
+            return;
+        }
+        locale = currentLocale;
+        zone = currentZone;
+        currencyFormat = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
+        dateFormat = new SimpleDateFormat("MMM dd, yyyy", currentLocale);
+        dateFormat.setTimeZone(currentZone);
+        cache.clear();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.dailyexpensetracker.utils;
+
+import java.util.TimeZone;
+
+// Fixed-format "yyyy-MM-dd HH:mm:ss" (or bare "yyyy-MM-dd") conversion for the expenses.date
+// column. Stateless, so safe to share between threads, and parse() allocates nothing;
+// callers look the TimeZone up once (TimeZone.getDefault() returns a copy) and pass it in.
+public final class ExpenseTimestamps {
+
+    // Returned by parse() when the text is not a valid timestamp
+    public static final long INVALID = Long.MIN_VALUE;
+
+    // Length of what format() writes
+    public static final int FORMATTED_LENGTH = 19;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * MILLIS_PER_SECOND;
+
+    private ExpenseTimestamps() {}
+
+    // Epoch millis of a local date-time in zone, or INVALID
+    public static long parse(CharSequence text, TimeZone zone) {
+        if (text == null) return INVALID;
+        int length = text.length();
+        if (length != 10 && length != 19) return INVALID;
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') return INVALID;
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = 0, minute = 0, second = 0;
+        if (length == 19) {
+            if (text.charAt(10) != ' ' || text.charAt(13) != ':' || text.charAt(16) != ':') return INVALID;
+            hour = digits(text, 11, 2);
+            minute = digits(text, 14, 2);
+            second = digits(text, 17, 2);
+        }
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return INVALID;
+        }
+
+        long localMillis = daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                + ((hour * 60L + minute) * 60L + second) * MILLIS_PER_SECOND;
+        return toUtc(localMillis, zone);
+    }
+
+    // "yyyy-MM-dd HH:mm:ss" for epoch millis in zone
+    public static String format(long millis, TimeZone zone) {
+        char[] out = new char[FORMATTED_LENGTH];
+        format(millis, zone, out);
+        return new String(out);
+    }
+
+    // The same into out[0..FORMATTED_LENGTH), for callers formatting many rows into one buffer
+    public static void format(long millis, TimeZone zone, char[] out) {
+        long localMillis = millis + zone.getOffset(millis);
+        long days = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        int secondOfDay = (int) (Math.floorMod(localMillis, MILLIS_PER_DAY) / MILLIS_PER_SECOND);
+
+        writeCivil(days, out);
+        out[10] = ' ';
+        writeDigits(out, 11, secondOfDay / 3600, 2);
+        out[13] = ':';
+        writeDigits(out, 14, secondOfDay / 60 % 60, 2);
+        out[16] = ':';
+        writeDigits(out, 17, secondOfDay % 60, 2);
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date (H. Hinnant's days_from_civil)
+    public static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        int yearOfEra = (int) (y - era * 400);
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // The UTC instant whose local time in zone is localMillis. Like java.util.Calendar,
+    // wall times that are repeated or skipped around a DST change are read as standard time.
+    private static long toUtc(long localMillis, TimeZone zone) {
+        int rawOffset = zone.getRawOffset();
+        long standard = localMillis - rawOffset;
+        int offset = zone.getOffset(standard);
+        if (offset == rawOffset) return standard;
+
+        long daylight = localMillis - offset;
+        return zone.getOffset(daylight) == offset ? daylight : standard;
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Writes yyyy-MM-dd for a day count into out[0..9] (H. Hinnant's civil_from_days)
+    private static void writeCivil(long days, char[] out) {
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        writeDigits(out, 0, (int) year, 4);
+        out[4] = '-';
+        writeDigits(out, 5, month, 2);
+        out[7] = '-';
+        writeDigits(out, 8, day, 2);
+    }
+
+    private static void writeDigits(char[] out, int start, int value, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.dailyexpensetracker.utils;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+
+// Amounts are whole paise in a long: exact to add up, unlike rupees in a double, where 0.1 + 0.2
+// already isn't 0.3. Rupees only appear at the edges, parsed from what the user typed and
+// formatted for display. Stateless, so safe to share between threads.
+public final class Money {
+
+    // Returned by parse() when the text is not an amount
+    public static final long INVALID = Long.MIN_VALUE;
+
+    public static final int PAISE_PER_RUPEE = 100;
+    // Longest text toPlainString returns, for Long.MIN_VALUE: "-92233720368547758.08"
+    public static final int MAX_PLAIN_LENGTH = 21;
+    private static final int FRACTION_DIGITS = 2;
+    // Enough for any realistic amount while leaving room to add many of them up
+    private static final int MAX_RUPEE_DIGITS = 15;
+
+    private Money() {}
+
+    // Paise in a decimal rupee amount such as "12", "12.5", "-0.05" or ".75", or INVALID.
+    // Exact: digits past the second decimal place are only accepted if they are zeros, since
+    // rounding them away would change what was entered.
+    public static long parse(CharSequence text) {
+        if (text == null) return INVALID;
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        boolean negative = false;
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+            negative = text.charAt(start) == '-';
+            start++;
+        }
+
+        long rupees = 0;
+        int rupeeDigits = 0;
+        int i = start;
+        for (; i < end && isDigit(text.charAt(i)); i++) {
+            if (++rupeeDigits > MAX_RUPEE_DIGITS) return INVALID;
+            rupees = rupees * 10 + (text.charAt(i) - '0');
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < end && text.charAt(i) == '.') {
+            for (i++; i < end && isDigit(text.charAt(i)); i++) {
+                int digit = text.charAt(i) - '0';
+                if (fractionDigits < FRACTION_DIGITS) {
+                    fraction = fraction * 10 + digit;
+                } else if (digit != 0) {
+                    return INVALID;
+                }
+                fractionDigits++;
+            }
+        }
+        if (i != end || rupeeDigits + fractionDigits == 0) return INVALID;
+
+        for (int d = Math.min(fractionDigits, FRACTION_DIGITS); d < FRACTION_DIGITS; d++) {
+            fraction *= 10;
+        }
+        long paise = rupees * PAISE_PER_RUPEE + fraction;
+        return negative ? -paise : paise;
+    }
+
+    // Rupees with exactly two decimals and no grouping, e.g. "1234.50", for editing and export
+    public static String toPlainString(long paise) {
+        return toDecimal(paise).toPlainString();
+    }
+
+    // toPlainString's text written into out from index 0 without allocating, for streaming
+    // export; out must hold MAX_PLAIN_LENGTH chars. Returns the length written.
+    public static int toPlainChars(long paise, char[] out) {
+        boolean negative = paise < 0;
+        // Taken apart as a non-positive number, so Long.MIN_VALUE needs no special case
+        long value = negative ? paise : -paise;
+        int fraction = (int) -(value % PAISE_PER_RUPEE);
+        long rupees = -(value / PAISE_PER_RUPEE);
+        int rupeeDigits = 1;
+        for (long r = rupees; r >= 10; r /= 10) {
+            rupeeDigits++;
+        }
+        int length = (negative ? 1 : 0) + rupeeDigits + 1 + FRACTION_DIGITS;
+        int i = length;
+        out[--i] = (char) ('0' + fraction % 10);
+        out[--i] = (char) ('0' + fraction / 10);
+        out[--i] = '.';
+        do {
+            out[--i] = (char) ('0' + rupees % 10);
+            rupees /= 10;
+        } while (rupees > 0);
+        if (negative) out[0] = '-';
+        return length;
+    }
+
+    public static BigDecimal toDecimal(long paise) {
+        return BigDecimal.valueOf(paise, FRACTION_DIGITS);
+    }
+
+    // Formats through a currency NumberFormat without passing through a double
+    public static String format(NumberFormat format, long paise) {
+        return format.format(toDecimal(paise));
+    }
+
+    // Rupees for charts and other drawing, where a float is what the view takes
+    public static float toFloat(long paise) {
+        return paise / (float) PAISE_PER_RUPEE;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.dailyexpensetracker.utils;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
+import java.util.Locale;
+
+// The one definition of today, this week and this month for the whole process. The bounds are
+// worked out once with java.time and held as epoch millis, so checking a date against a period
+// is two long comparisons and allocates nothing.
+// They are recomputed when the current instant leaves today (midnight, or the clock set back)
+// and after refresh(), which the app calls when the time zone, clock or locale changes (the
+// locale decides the first day of the week). Safe to use from any thread.
+public final class PeriodClock {
+
+    private static final PeriodClock INSTANCE = new PeriodClock(Clock.systemUTC());
+
+    // Every bound for one local day, replaced as a whole so readers never see a mix
+    private static final class Bounds {
+        final ZoneId zone;
+        final long todayStart;
+        final long todayEnd;
+        final long weekStart;
+        final long weekEnd;
+        final long monthStart;
+        final long monthEnd;
+
+        Bounds(Instant now, ZoneId zone, DayOfWeek firstDayOfWeek) {
+            this.zone = zone;
+            LocalDate today = now.atZone(zone).toLocalDate();
+            LocalDate week = today.with(TemporalAdjusters.previousOrSame(firstDayOfWeek));
+            LocalDate month = today.withDayOfMonth(1);
+            todayStart = startOf(today, zone);
+            todayEnd = startOf(today.plusDays(1), zone);
+            weekStart = startOf(week, zone);
+            weekEnd = startOf(week.plusWeeks(1), zone);
+            monthStart = startOf(month, zone);
+            monthEnd = startOf(month.plusMonths(1), zone);
+        }
+    }
+
+    private final Clock clock;
+    private volatile Bounds bounds;
+
+    public static PeriodClock get() {
+        return INSTANCE;
+    }
+
+    // Visible for tests, which pass a fixed clock; the zone and locale are the defaults
+    PeriodClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Drops the bounds so the next check recomputes them in the current default zone and locale
+    public void refresh() {
+        bounds = null;
+    }
+
+    // ✅ PERIOD CHECKS
+
+    public boolean isToday(long millis) {
+        Bounds b = current();
+        return millis >= b.todayStart && millis < b.todayEnd;
+    }
+
+    public boolean isThisWeek(long millis) {
+        Bounds b = current();
+        return millis >= b.weekStart && millis < b.weekEnd;
+    }
+
+    public boolean isThisMonth(long millis) {
+        Bounds b = current();
+        return millis >= b.monthStart && millis < b.monthEnd;
+    }
+
+    // ✅ BOUNDS
+    // [start, end) in millis; a new array each call, so callers may change it
+
+    public long[] todayRange() {
+        Bounds b = current();
+        return new long[]{b.todayStart, b.todayEnd};
+    }
+
+    public long[] thisWeekRange() {
+        Bounds b = current();
+        return new long[]{b.weekStart, b.weekEnd};
+    }
+
+    public long[] thisMonthRange() {
+        Bounds b = current();
+        return new long[]{b.monthStart, b.monthEnd};
+    }
+
+    // Local midnight starting an epoch day, in the zone the bounds use
+    public long startOfEpochDay(long day) {
+        return startOf(LocalDate.ofEpochDay(day), current().zone);
+    }
+
+    private Bounds current() {
+        Bounds b = bounds;
+        long now = clock.millis();
+        if (b == null || now < b.todayStart || now >= b.todayEnd) {
+            // Two threads may both recompute at midnight; they get the same answer
+            b = new Bounds(Instant.ofEpochMilli(now), ZoneId.systemDefault(),
+                    WeekFields.of(Locale.getDefault()).getFirstDayOfWeek());
+            bounds = b;
+        }
+        return b;
+    }
+
+    // The first instant of date in zone; later than midnight where a DST jump skips it
+    private static long startOf(LocalDate date, ZoneId zone) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.dailyexpensetracker.utils;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+
+import java.util.List;
+
+// The today / this week / this month periods as [start, end) ranges in millis, as PeriodClock
+// defines them, and the arithmetic the main screen does with them: which expenses fall in a
+// period and how a loaded total moves with a batch of writes. Plain Java, so it is unit tested
+// and benchmarked off the device.
+public final class PeriodRanges {
+
+    private PeriodRanges() {}
+
+    public static long[] todayRange() {
+        return PeriodClock.get().todayRange();
+    }
+
+    public static long[] thisWeekRange() {
+        return PeriodClock.get().thisWeekRange();
+    }
+
+    public static long[] thisMonthRange() {
+        return PeriodClock.get().thisMonthRange();
+    }
+
+    // A null range means everything, as for the unfiltered feed
+    public static boolean contains(long[] range, Expense expense) {
+        if (range == null) return true;
+        long millis = expense.getDate().getTime();
+        return millis >= range[0] && millis < range[1];
+    }
+
+    // total for range after changes: each old row in the range taken off, each new one added
+    public static long applyChanges(long total, List<ExpenseChange> changes, long[] range) {
+        for (ExpenseChange change : changes) {
+            if (change.getBefore() != null && contains(range, change.getBefore())) {
+                total -= change.getBefore().getAmountPaise();
+            }
+            if (change.getAfter() != null && contains(range, change.getAfter())) {
+                total += change.getAfter().getAmountPaise();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.dailyexpensetracker.utils;
+
+import com.example.dailyexpensetracker.models.CategoryTotal;
+import com.example.dailyexpensetracker.models.ExpenseReport;
+import com.example.dailyexpensetracker.models.NoteTotal;
+import com.example.dailyexpensetracker.models.ReportPeriod;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+// Monthly and yearly reports over years of expenses. The rows are cut into date-ordered chunks
+// that are totalled in parallel on a ForkJoinPool, a few chunks per core, and the partial totals
+// merged; the median and 90th percentile are then worked out period by period, also in parallel.
+// Every task checks the caller's cancellation flag before it starts, so a report nobody is
+// waiting for stops within a chunk. Plain Java, so it is unit tested and benchmarked off the
+// device.
+public final class ReportEngine {
+
+    // Notes with the most spending on local days [startDay, endDay), largest first
+    public interface TopNotes {
+        List<NoteTotal> topNotes(long startDay, long endDay, int limit);
+    }
+
+    // The rows a report reads: parallel columns sorted by local epoch day. Amounts are in paise;
+    // category ids are small, dense and never negative. The engine only reads them.
+    public static final class Columns {
+        final int[] days;
+        final long[] amounts;
+        final int[] categoryIds;
+        final int size;
+
+        public Columns(int[] days, long[] amounts, int[] categoryIds, int size) {
+            this.days = days;
+            this.amounts = amounts;
+            this.categoryIds = categoryIds;
+            this.size = size;
+        }
+    }
+
+    public static final int TOP_NOTES = 3;
+    // Below this a chunk costs more to hand to another thread than to scan
+    private static final int MIN_CHUNK_ROWS = 8192;
+    // Several chunks a thread, so one that finishes early can steal another's
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final ReportEngine INSTANCE = new ReportEngine(ForkJoinPool.commonPool(), MIN_CHUNK_ROWS);
+
+    private final ForkJoinPool pool;
+    private final int minChunkRows;
+
+    // On the common pool, which has a thread for every core but one; the caller's thread waits
+    public static ReportEngine get() {
+        return INSTANCE;
+    }
+
+    // Visible for tests and benchmarks, which pick the pool size and force small chunks
+    ReportEngine(ForkJoinPool pool, int minChunkRows) {
+        this.pool = pool;
+        this.minChunkRows = minChunkRows;
+    }
+
+    // ✅ PERIODS
+
+    // Start days of every period touching local days [firstDay, lastDay] and of the one before
+    // them (so the first has a change to show), then the end of the last: periods + 2 days
+    public static long[] bounds(ExpenseReport.Granularity granularity, long firstDay, long lastDay) {
+        LocalDate first = LocalDate.ofEpochDay(firstDay);
+        LocalDate start = granularity == ExpenseReport.Granularity.MONTH
+                ? first.withDayOfMonth(1).minusMonths(1)
+                : first.withDayOfYear(1).minusYears(1);
+        List<Long> bounds = new ArrayList<>();
+        for (LocalDate date = start; date.toEpochDay() <= lastDay; date = next(granularity, date)) {
+            bounds.add(date.toEpochDay());
+        }
+        bounds.add(next(granularity, LocalDate.ofEpochDay(bounds.get(bounds.size() - 1))).toEpochDay());
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static LocalDate next(ExpenseReport.Granularity granularity, LocalDate start) {
+        return granularity == ExpenseReport.Granularity.MONTH ? start.plusMonths(1) : start.plusYears(1);
+    }
+
+    // ✅ REPORT
+
+    // One period for each pair of bounds after the first. Throws CancellationException once
+    // cancelled returns true; topNotes is called on this thread, once per period with spending.
+    public ExpenseReport run(Columns columns, ExpenseReport.Granularity granularity, long[] bounds,
+                             IntFunction<String> categoryNames, TopNotes topNotes, BooleanSupplier cancelled) {
+        int periods = bounds.length - 1;
+        int[] rowStarts = new int[periods + 1];
+        for (int p = 0; p <= periods; p++) {
+            rowStarts[p] = lowerBound(columns, bounds[p]);
+        }
+
+        int rows = rowStarts[periods] - rowStarts[0];
+        int chunkRows = Math.max(minChunkRows, rows / (pool.getParallelism() * CHUNKS_PER_THREAD) + 1);
+        Partial totals = pool.invoke(new ChunkTask(columns, bounds, rowStarts[0], rowStarts[periods],
+                chunkRows, cancelled));
+
+        // The period before the report only lends its total
+        long[] medians = new long[periods];
+        long[] percentiles90 = new long[periods];
+        pool.invoke(new PercentileTask(columns, rowStarts, 1, periods, medians, percentiles90, cancelled));
+
+        List<ReportPeriod> result = new ArrayList<>(periods - 1);
+        for (int p = 1; p < periods; p++) {
+            checkCancelled(cancelled);
+            List<NoteTotal> notes = totals.counts[p] == 0
+                    ? Collections.emptyList()
+                    : topNotes.topNotes(bounds[p], bounds[p + 1], TOP_NOTES);
+            result.add(new ReportPeriod(bounds[p], bounds[p + 1], totals.counts[p], totals.totals[p],
+                    totals.totals[p - 1], medians[p], percentiles90[p], totals.categories(p, categoryNames), notes));
+        }
+        return new ExpenseReport(granularity, Collections.unmodifiableList(result));
+    }
+
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) throw new CancellationException("Report cancelled");
+    }
+
+    // First row whose day is >= day
+    private static int lowerBound(Columns columns, long day) {
+        int low = 0;
+        int high = columns.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns.days[mid] < day) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Index of the period holding day; bounds[0] <= day < bounds[last]
+    private static int periodOf(long[] bounds, long day) {
+        int low = 0;
+        int high = bounds.length - 1;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] <= day) low = mid;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // ✅ TOTALS
+    // Each chunk sums into its own Partial, so no two threads write the same array
+
+    private static final class Partial {
+        final long[] totals;
+        final int[] counts;
+        // By period, then category id; null for a period the chunk had no rows in
+        final long[][] categoryTotals;
+        final int[][] categoryCounts;
+
+        Partial(int periods) {
+            totals = new long[periods];
+            counts = new int[periods];
+            categoryTotals = new long[periods][];
+            categoryCounts = new int[periods][];
+        }
+
+        void add(int period, int category, long amount) {
+            totals[period] += amount;
+            counts[period]++;
+            if (categoryTotals[period] == null || category >= categoryTotals[period].length) {
+                growCategories(period, category + 1);
+            }
+            categoryTotals[period][category] += amount;
+            categoryCounts[period][category]++;
+        }
+
+        void merge(Partial other) {
+            for (int p = 0; p < totals.length; p++) {
+                totals[p] += other.totals[p];
+                counts[p] += other.counts[p];
+                long[] otherTotals = other.categoryTotals[p];
+                if (otherTotals == null) continue;
+                if (categoryTotals[p] == null) {
+                    categoryTotals[p] = otherTotals;
+                    categoryCounts[p] = other.categoryCounts[p];
+                    continue;
+                }
+                if (otherTotals.length > categoryTotals[p].length) growCategories(p, otherTotals.length);
+                for (int c = 0; c < otherTotals.length; c++) {
+                    categoryTotals[p][c] += otherTotals[c];
+                    categoryCounts[p][c] += other.categoryCounts[p][c];
+                }
+            }
+        }
+
+        private void growCategories(int period, int needed) {
+            long[] current = categoryTotals[period];
+            int length = current == null ? Math.max(needed, 16) : Math.max(needed, current.length * 2);
+            categoryTotals[period] = current == null ? new long[length] : Arrays.copyOf(current, length);
+            categoryCounts[period] = current == null ? new int[length] : Arrays.copyOf(categoryCounts[period], length);
+        }
+
+        // Largest first; a category with no name is ""
+        List<CategoryTotal> categories(int period, IntFunction<String> categoryNames) {
+            List<CategoryTotal> result = new ArrayList<>();
+            if (categoryTotals[period] == null) return result;
+            for (int c = 0; c < categoryTotals[period].length; c++) {
+                if (categoryCounts[period][c] == 0) continue;
+                String name = categoryNames.apply(c);
+                result.add(new CategoryTotal(name != null ? name : "", categoryTotals[period][c],
+                        categoryCounts[period][c]));
+            }
+            result.sort((a, b) -> Long.compare(b.getTotal(), a.getTotal()));
+            return result;
+        }
+    }
+
+    // Rows [from, to), halved until a chunk is small enough to scan
+    private static final class ChunkTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final Columns columns;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+        private final int chunkRows;
+        private final BooleanSupplier cancelled;
+
+        ChunkTask(Columns columns, long[] bounds, int from, int to, int chunkRows, BooleanSupplier cancelled) {
+            this.columns = columns;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.chunkRows = chunkRows;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected Partial compute() {
+            checkCancelled(cancelled);
+            if (to - from <= chunkRows) return scan();
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(columns, bounds, from, mid, chunkRows, cancelled);
+            left.fork();
+            Partial right = new ChunkTask(columns, bounds, mid, to, chunkRows, cancelled).compute();
+            Partial merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+
+        // Rows are in day order, so the period only ever moves forward
+        private Partial scan() {
+            Partial partial = new Partial(bounds.length - 1);
+            if (from == to) return partial;
+            int period = periodOf(bounds, columns.days[from]);
+            long periodEnd = bounds[period + 1];
+            for (int i = from; i < to; i++) {
+                while (columns.days[i] >= periodEnd) {
+                    period++;
+                    periodEnd = bounds[period + 1];
+                }
+                partial.add(period, columns.categoryIds[i], columns.amounts[i]);
+            }
+            return partial;
+        }
+    }
+
+    // ✅ PERCENTILES
+    // Each period's rows are a contiguous slice, sorted on a copy; periods run in parallel
+
+    private static final class PercentileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Columns columns;
+        private final int[] rowStarts;
+        private final int fromPeriod;
+        private final int toPeriod;
+        private final long[] medians;
+        private final long[] percentiles90;
+        private final BooleanSupplier cancelled;
+
+        PercentileTask(Columns columns, int[] rowStarts, int fromPeriod, int toPeriod, long[] medians,
+                       long[] percentiles90, BooleanSupplier cancelled) {
+            this.columns = columns;
+            this.rowStarts = rowStarts;
+            this.fromPeriod = fromPeriod;
+            this.toPeriod = toPeriod;
+            this.medians = medians;
+            this.percentiles90 = percentiles90;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            checkCancelled(cancelled);
+            if (toPeriod - fromPeriod <= 1) {
+                if (toPeriod > fromPeriod) percentiles(fromPeriod);
+                return;
+            }
+            int mid = (fromPeriod + toPeriod) >>> 1;
+            invokeAll(new PercentileTask(columns, rowStarts, fromPeriod, mid, medians, percentiles90, cancelled),
+                    new PercentileTask(columns, rowStarts, mid, toPeriod, medians, percentiles90, cancelled));
+        }
+
+        private void percentiles(int period) {
+            int start = rowStarts[period];
+            int end = rowStarts[period + 1];
+            if (start == end) return;
+            long[] sorted = Arrays.copyOfRange(columns.amounts, start, end);
+            Arrays.sort(sorted);
+            medians[period] = nearestRank(sorted, 50);
+            percentiles90[period] = nearestRank(sorted, 90);
+        }
+    }
+
+    // Smallest amount with at least percent% of the amounts at or below it
+    static long nearestRank(long[] sorted, int percent) {
+        int rank = (int) ((sorted.length * (long) percent + 99) / 100);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
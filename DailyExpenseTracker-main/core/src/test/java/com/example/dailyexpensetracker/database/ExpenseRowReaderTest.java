@@ -0,0 +1,76 @@
+package com.example.dailyexpensetracker.database;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ExpenseRowReaderTest {
+
+    private static final int ABSENT = ExpenseRowReader.ABSENT;
+
+    // Columns: id, amount_paise, category or category_id, note, date, date_millis
+    private static ExpenseRowReader.Row row(Object... values) {
+        return new ExpenseRowReader.Row() {
+            @Override
+            public boolean isNull(int column) {
+                return values[column] == null;
+            }
+
+            @Override
+            public int getInt(int column) {
+                return ((Number) values[column]).intValue();
+            }
+
+            @Override
+            public long getLong(int column) {
+                return ((Number) values[column]).longValue();
+            }
+
+            @Override
+            public String getString(int column) {
+                return (String) values[column];
+            }
+        };
+    }
+
+    @Test
+    public void readsCurrentRowsById() {
+        ExpenseRowReader reader = new ExpenseRowReader(0, 1, ABSENT, 2, 3, 4, 5,
+                id -> id == 1 ? "Food" : null);
+
+        Expense expense = reader.read(row(7, 12050L, 1L, "Lunch", "not read", 1_700_000_000_000L));
+        assertEquals(new Expense(7, 12050, "Food", "Lunch", new Date(1_700_000_000_000L)), expense);
+        assertFalse(expense.hasChanges());
+
+        assertNull(reader.read(row(8, 100L, null, null, null, 1L)).getCategory());
+    }
+
+    @Test
+    public void fallsBackToDateTextAndCountsUnreadableRows() {
+        ExpenseRowReader reader = new ExpenseRowReader(0, 1, 2, ABSENT, 3, 4, ABSENT, null);
+        String text = ExpenseTimestamps.format(1_700_000_000_000L, TimeZone.getDefault());
+
+        assertEquals(1_700_000_000_000L, reader.read(row(1, 5L, "Food", null, text)).getDate().getTime());
+        assertNull(reader.read(row(2, 5L, "Food", null, "yesterday")));
+        assertEquals(1, reader.getParseFailures());
+    }
+
+    @Test
+    public void categoryIdsNeedNames() {
+        try {
+            new ExpenseRowReader(0, 1, ABSENT, 2, 3, 4, 5, null);
+            fail("Reader accepted category ids without names");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.dailyexpensetracker.io;
+
+import com.example.dailyexpensetracker.utils.ExpenseTimestamps;
+import com.example.dailyexpensetracker.utils.Money;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CsvRecordReaderTest {
+
+    private static final TimeZone KOLKATA = TimeZone.getTimeZone("Asia/Kolkata");
+
+    @Test
+    public void splitsQuotedFields() throws IOException {
+        CsvRecordReader reader = reader("a,\"b, c\",\"say \"\"hi\"\"\",\n\n\"x\ny\",z\nlast");
+        assertEquals(Arrays.asList("a", "b, c", "say \"hi\"", ""), reader.next());
+        assertEquals(1, reader.getStartLine());
+        assertEquals(Arrays.asList(""), reader.next());
+        assertEquals(Arrays.asList("x\ny", "z"), reader.next());
+        assertEquals(3, reader.getStartLine());
+        assertEquals(4, reader.getLineNumber());
+        assertEquals("\"x\ny\",z", reader.getText());
+        assertEquals(Arrays.asList("last"), reader.next());
+        assertEquals(5, reader.getStartLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void openQuoteEndsWithTheInput() throws IOException {
+        CsvRecordReader reader = reader("a,\"b\nc");
+        assertEquals(Arrays.asList("a", "b\nc"), reader.next());
+        assertNull(reader.next());
+    }
+
+    // What ExpenseExportWriter writes comes back field for field, notes with line breaks included
+    @Test
+    public void readsWhatTheExportWriterWrites() throws IOException {
+        long[] dates = {ExpenseTimestamps.parse("2024-05-01 09:30:00", KOLKATA),
+                ExpenseTimestamps.parse("2024-05-02 23:59:59", KOLKATA),
+                ExpenseTimestamps.parse("2024-05-03 00:00:00", KOLKATA)};
+        String[] categories = {"Food", null, "Bills, rent"};
+        String[] notes = {"Lunch", null, "said \"paid\"\nlate, twice\n\nreally"};
+        long[] amounts = {12_050, 5, -100};
+
+        StringWriter out = new StringWriter();
+        ExpenseExportWriter writer = new ExpenseExportWriter(out, ExpenseExportWriter.Format.CSV, KOLKATA);
+        writer.begin();
+        for (int i = 0; i < dates.length; i++) {
+            char[] note = notes[i] == null ? null : notes[i].toCharArray();
+            writer.write(dates[i], categories[i], note, note == null ? 0 : note.length, amounts[i]);
+        }
+        writer.end();
+
+        CsvRecordReader reader = reader(out.toString());
+        assertEquals(Arrays.asList("date", "category", "note", "amount"), reader.next());
+        for (int i = 0; i < dates.length; i++) {
+            List<String> fields = reader.next();
+            assertEquals(4, fields.size());
+            assertEquals(dates[i], ExpenseTimestamps.parse(fields.get(0), KOLKATA));
+            assertEquals(categories[i] == null ? "" : categories[i], fields.get(1));
+            assertEquals(notes[i] == null ? "" : notes[i], fields.get(2));
+            assertEquals(amounts[i], Money.parse(fields.get(3)));
+        }
+        assertNull(reader.next());
+    }
+
+    private static CsvRecordReader reader(String text) {
+        return new CsvRecordReader(new BufferedReader(new StringReader(text)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.dailyexpensetracker.io;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExpenseExportWriterTest {
+
+    private static final TimeZone KOLKATA = TimeZone.getTimeZone("Asia/Kolkata");
+    private static final long MAY_1 = Instant.parse("2024-05-01T04:00:00Z").toEpochMilli();
+
+    @Test
+    public void writesCsvTheImporterReads() throws IOException {
+        StringWriter out = new StringWriter();
+        ExpenseExportWriter writer = new ExpenseExportWriter(out, ExpenseExportWriter.Format.CSV, KOLKATA);
+        writer.begin();
+        writer.write(MAY_1, "Food", chars("Lunch"), 5, 12_050);
+        writer.write(MAY_1, null, null, 0, 5);
+        writer.write(MAY_1, "Bills, rent", chars("said \"paid\"\nlate"), 16, -100);
+        writer.end();
+
+        assertEquals("date,category,note,amount\n"
+                + "2024-05-01 09:30:00,Food,Lunch,120.50\n"
+                + "2024-05-01 09:30:00,,,0.05\n"
+                + "2024-05-01 09:30:00,\"Bills, rent\",\"said \"\"paid\"\"\nlate\",-1.00\n", out.toString());
+        assertEquals(3, writer.getRows());
+    }
+
+    @Test
+    public void writesEscapedJson() throws IOException {
+        StringWriter out = new StringWriter();
+        ExpenseExportWriter writer = new ExpenseExportWriter(out, ExpenseExportWriter.Format.JSON, KOLKATA);
+        writer.begin();
+        writer.write(MAY_1, "Food", chars("Lunch"), 5, 12_050);
+        // Only the given length of the buffer is the note, as with a reused cursor buffer
+        writer.write(MAY_1, null, chars("a\\b\"c\td\u0001zzz"), 8, 100);
+        writer.end();
+
+        assertEquals("[\n"
+                + "{\"date\":\"2024-05-01 09:30:00\",\"category\":\"Food\",\"note\":\"Lunch\",\"amount\":120.50},\n"
+                + "{\"date\":\"2024-05-01 09:30:00\",\"category\":null,\"note\":\"a\\\\b\\\"c\\td\\u0001\",\"amount\":1.00}\n"
+                + "]\n", out.toString());
+    }
+
+    @Test
+    public void emptyExportIsStillWellFormed() throws IOException {
+        StringWriter csv = new StringWriter();
+        ExpenseExportWriter csvWriter = new ExpenseExportWriter(csv, ExpenseExportWriter.Format.CSV, KOLKATA);
+        csvWriter.begin();
+        csvWriter.end();
+        assertEquals("date,category,note,amount\n", csv.toString());
+
+        StringWriter json = new StringWriter();
+        ExpenseExportWriter jsonWriter = new ExpenseExportWriter(json, ExpenseExportWriter.Format.JSON, KOLKATA);
+        jsonWriter.begin();
+        jsonWriter.end();
+        assertEquals("[\n]\n", json.toString());
+    }
+
+    private static char[] chars(String text) {
+        return text.toCharArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.dailyexpensetracker.models;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExpenseTest {
+
+    private static Expense saved() {
+        Expense expense = new Expense(7, 12050, "Food", null, new Date(1_700_000_000_000L));
+        expense.clearChanges();
+        return expense;
+    }
+
+    @Test
+    public void newExpenseCountsAsEntirelyChanged() {
+        Expense expense = new Expense(12050, "Food", "Lunch", new Date());
+        assertTrue(expense.isChanged(Expense.FIELD_AMOUNT));
+        assertTrue(expense.isChanged(Expense.FIELD_CATEGORY));
+        assertTrue(expense.isChanged(Expense.FIELD_NOTE));
+        assertTrue(expense.isChanged(Expense.FIELD_DATE));
+    }
+
+    @Test
+    public void settingTheSameValuesIsNotAChange() {
+        Expense expense = saved();
+        expense.setAmountPaise(12050);
+        expense.setCategory("Food");
+        expense.setNote(null);
+        expense.setDate(new Date(1_700_000_000_000L));
+        assertFalse(expense.hasChanges());
+    }
+
+    @Test
+    public void tracksEachChangedField() {
+        Expense expense = saved();
+        expense.setNote("Team lunch");
+        expense.setAmountPaise(9900);
+        assertEquals(Expense.FIELD_NOTE | Expense.FIELD_AMOUNT, expense.getChangedFields());
+        assertFalse(expense.isChanged(Expense.FIELD_DATE | Expense.FIELD_CATEGORY));
+
+        Expense copy = new Expense(expense);
+        assertEquals(expense.getChangedFields(), copy.getChangedFields());
+        expense.clearChanges();
+        assertFalse(expense.hasChanges());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.dailyexpensetracker.utils;
+
+import org.junit.Test;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoneyTest {
+
+    @Test
+    public void parsesRupeesToExactPaise() {
+        assertEquals(1200, Money.parse("12"));
+        assertEquals(1250, Money.parse("12.5"));
+        assertEquals(1205, Money.parse("12.05"));
+        assertEquals(75, Money.parse(".75"));
+        assertEquals(1200, Money.parse("12."));
+        assertEquals(-5, Money.parse("-0.05"));
+        assertEquals(1999, Money.parse(" 19.990 "));
+        assertEquals(9_999_999_999L, Money.parse("99999999.99"));
+    }
+
+    @Test
+    public void rejectsWhatIsNotAnAmount() {
+        String[] invalid = {null, "", " ", ".", "-", "1.005", "1,000", "1e3", "12.3.4", "abc", "NaN",
+                "1234567890123456"};
+        for (String text : invalid) {
+            assertEquals(String.valueOf(text), Money.INVALID, Money.parse(text));
+        }
+    }
+
+    @Test
+    public void sumsWithoutDrift() {
+        // 0.1 added ten thousand times as a double is not 1000
+        long total = 0;
+        for (int i = 0; i < 10_000; i++) {
+            total += Money.parse("0.1");
+        }
+        assertEquals(100_000, total);
+        assertEquals("1000.00", Money.toPlainString(total));
+    }
+
+    @Test
+    public void writesPlainCharsAsToPlainString() {
+        char[] out = new char[Money.MAX_PLAIN_LENGTH];
+        long[] amounts = {0, 5, -5, 99, 100, -100, 12_345, -1234, 9_999_999_999L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long paise : amounts) {
+            int length = Money.toPlainChars(paise, out);
+            assertEquals(Money.toPlainString(paise), new String(out, 0, length));
+        }
+    }
+
+    @Test
+    public void formatsWithoutADouble() {
+        assertEquals("0.05", Money.toPlainString(5));
+        assertEquals("-12.34", Money.toPlainString(-1234));
+        NumberFormat currency = NumberFormat.getCurrencyInstance(Locale.US);
+        assertEquals("$90,071,992,547,409.93", Money.format(currency, 9_007_199_254_740_993L));
+    }
+}
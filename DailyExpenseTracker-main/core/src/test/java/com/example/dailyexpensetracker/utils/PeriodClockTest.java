@@ -0,0 +1,137 @@
+package com.example.dailyexpensetracker.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// Checks the java.time bounds against the Calendar arithmetic they replaced, on ordinary days,
+// across DST changes and New Year, for locales that start the week on Sunday and on Monday.
+public class PeriodClockTest {
+
+    private static final long HOUR = 60L * 60 * 1000;
+
+    private Locale savedLocale;
+    private TimeZone savedZone;
+
+    // A clock the test moves by hand
+    private static final class ManualClock extends Clock {
+        long millis;
+
+        ManualClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        savedLocale = Locale.getDefault();
+        savedZone = TimeZone.getDefault();
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(savedLocale);
+        TimeZone.setDefault(savedZone);
+        PeriodClock.get().refresh();
+    }
+
+    @Test
+    public void boundsMatchCalendar() {
+        String[] zones = {"Asia/Kolkata", "America/New_York", "Europe/Paris", "Australia/Lord_Howe"};
+        // Around New Year, and the US and EU spring-forward and fall-back days of 2024
+        String[] instants = {"2023-12-31T23:30:00Z", "2024-01-01T04:59:00Z", "2024-03-10T12:00:00Z",
+                "2024-03-31T01:30:00Z", "2024-10-27T12:00:00Z", "2024-11-03T05:30:00Z", "2024-02-29T18:45:00Z"};
+        for (Locale locale : new Locale[]{Locale.US, Locale.FRANCE}) {
+            Locale.setDefault(locale);
+            for (String zone : zones) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+                for (String instant : instants) {
+                    long now = Instant.parse(instant).toEpochMilli();
+                    PeriodClock clock = new PeriodClock(new ManualClock(now));
+                    String label = locale + " " + zone + " " + instant;
+                    assertArrayEquals(label + " today", calendarRange(now, Calendar.DAY_OF_MONTH), clock.todayRange());
+                    assertArrayEquals(label + " week", calendarRange(now, Calendar.WEEK_OF_YEAR), clock.thisWeekRange());
+                    assertArrayEquals(label + " month", calendarRange(now, Calendar.MONTH), clock.thisMonthRange());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rollsOverAtMidnight() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        ManualClock time = new ManualClock(Instant.parse("2024-05-31T18:00:00Z").toEpochMilli());
+        PeriodClock clock = new PeriodClock(time);
+        long[] may31 = clock.todayRange();
+        assertTrue(clock.isToday(time.millis));
+        assertTrue(clock.isThisMonth(time.millis));
+
+        // 23:59 then 00:01 local time
+        time.millis = may31[1] - 60_000;
+        assertArrayEquals(may31, clock.todayRange());
+        time.millis = may31[1] + 60_000;
+        assertEquals(may31[1], clock.todayRange()[0]);
+        assertFalse(clock.isThisMonth(may31[0]));
+    }
+
+    @Test
+    public void refreshPicksUpANewZone() {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        long now = Instant.parse("2024-05-15T12:00:00Z").toEpochMilli();
+        PeriodClock clock = new PeriodClock(new ManualClock(now));
+        assertEquals(Instant.parse("2024-05-15T00:00:00Z").toEpochMilli(), clock.todayRange()[0]);
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        clock.refresh();
+        assertEquals(Instant.parse("2024-05-14T18:30:00Z").toEpochMilli(), clock.todayRange()[0]);
+        assertEquals(clock.todayRange()[0] + 24 * HOUR, clock.startOfEpochDay(19_858 + 1));
+    }
+
+    // The period containing now as the old DBHelper worked it out with a Calendar
+    private static long[] calendarRange(long now, int period) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (period == Calendar.WEEK_OF_YEAR) calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+        if (period == Calendar.MONTH) calendar.set(Calendar.DAY_OF_MONTH, 1);
+        long start = calendar.getTimeInMillis();
+        calendar.add(period == Calendar.WEEK_OF_YEAR ? Calendar.DAY_OF_MONTH : period,
+                period == Calendar.WEEK_OF_YEAR ? 7 : 1);
+        return new long[]{start, calendar.getTimeInMillis()};
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.dailyexpensetracker.utils;
+
+import com.example.dailyexpensetracker.models.Expense;
+import com.example.dailyexpensetracker.models.ExpenseChange;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PeriodRangesTest {
+
+    private static final long[] RANGE = {1_000, 2_000};
+
+    private static Expense at(int id, long millis, long amountPaise) {
+        return new Expense(id, amountPaise, "Food", null, new Date(millis));
+    }
+
+    @Test
+    public void rangesAreHalfOpen() {
+        assertTrue(PeriodRanges.contains(RANGE, at(1, 1_000, 1)));
+        assertFalse(PeriodRanges.contains(RANGE, at(1, 2_000, 1)));
+        assertTrue(PeriodRanges.contains(null, at(1, Long.MIN_VALUE, 1)));
+
+        long[] today = PeriodRanges.todayRange();
+        long now = System.currentTimeMillis();
+        assertTrue(today[0] <= now && now < today[1]);
+        assertTrue(PeriodRanges.thisMonthRange()[0] <= today[0]);
+    }
+
+    @Test
+    public void changesMoveTotalsInAndOutOfTheRange() {
+        Expense inside = at(1, 1_500, 300);
+        Expense movedOut = new Expense(inside);
+        movedOut.setDate(new Date(2_500));
+        Expense outside = at(2, 500, 700);
+        Expense movedIn = new Expense(outside);
+        movedIn.setDate(new Date(1_200));
+
+        assertEquals(1_000 - 300 + 700 + 50 - 300, PeriodRanges.applyChanges(1_000, Arrays.asList(
+                ExpenseChange.updated(inside, movedOut),
+                ExpenseChange.updated(outside, movedIn),
+                ExpenseChange.inserted(at(3, 1_999, 50)),
+                ExpenseChange.deleted(at(4, 1_000, 300)),
+                ExpenseChange.deleted(at(5, 2_000, 900))), RANGE));
+        assertEquals(1_000, PeriodRanges.applyChanges(1_000, Collections.emptyList(), RANGE));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.dailyexpensetracker.utils;
+
+import com.example.dailyexpensetracker.models.CategoryTotal;
+import com.example.dailyexpensetracker.models.ExpenseReport;
+import com.example.dailyexpensetracker.models.NoteTotal;
+import com.example.dailyexpensetracker.models.ReportPeriod;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// Checks the parallel totals against a plain loop over the same rows, with chunks small enough
+// that every report is split across many tasks.
+public class ReportEngineTest {
+
+    private static final long FIRST_DAY = LocalDate.of(2019, 11, 20).toEpochDay();
+    private static final long LAST_DAY = LocalDate.of(2024, 3, 10).toEpochDay();
+
+    @Test
+    public void boundsCoverThePeriodBefore() {
+        long[] months = ReportEngine.bounds(ExpenseReport.Granularity.MONTH,
+                LocalDate.of(2024, 1, 15).toEpochDay(), LocalDate.of(2024, 3, 1).toEpochDay());
+        assertArrayEquals(new long[]{day(2023, 12, 1), day(2024, 1, 1), day(2024, 2, 1), day(2024, 3, 1),
+                day(2024, 4, 1)}, months);
+
+        long[] years = ReportEngine.bounds(ExpenseReport.Granularity.YEAR, FIRST_DAY, LAST_DAY);
+        assertArrayEquals(new long[]{day(2018, 1, 1), day(2019, 1, 1), day(2020, 1, 1), day(2021, 1, 1),
+                day(2022, 1, 1), day(2023, 1, 1), day(2024, 1, 1), day(2025, 1, 1)}, years);
+    }
+
+    @Test
+    public void matchesASequentialScan() {
+        ReportEngine.Columns columns = columns(50_000, 7);
+        for (ExpenseReport.Granularity granularity : ExpenseReport.Granularity.values()) {
+            for (int threads : new int[]{1, 4}) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    ReportEngine engine = new ReportEngine(pool, 100);
+                    long[] bounds = ReportEngine.bounds(granularity, FIRST_DAY + 40, LAST_DAY);
+                    ExpenseReport report = engine.run(columns, granularity, bounds, id -> id == 0 ? null : "c" + id,
+                            (start, end, limit) -> Collections.singletonList(new NoteTotal(start + "-" + end, 1, 1)),
+                            () -> false);
+                    assertEquals(bounds.length - 2, report.getPeriods().size());
+                    for (int p = 0; p < report.getPeriods().size(); p++) {
+                        checkPeriod(granularity + " " + threads + " " + p, columns, bounds[p], bounds[p + 1],
+                                bounds[p + 2], report.getPeriods().get(p));
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void emptyPeriodsAreZero() {
+        ReportEngine.Columns columns = new ReportEngine.Columns(new int[0], new long[0], new int[0], 0);
+        long[] bounds = ReportEngine.bounds(ExpenseReport.Granularity.MONTH, FIRST_DAY, FIRST_DAY + 60);
+        ExpenseReport report = ReportEngine.get().run(columns, ExpenseReport.Granularity.MONTH, bounds,
+                id -> null, (start, end, limit) -> {
+                    throw new AssertionError("No notes to look up");
+                }, () -> false);
+        for (ReportPeriod period : report.getPeriods()) {
+            assertEquals(0, period.getTotal());
+            assertEquals(0, period.getMedian());
+            assertTrue(Double.isNaN(period.getChangePercent()));
+            assertTrue(period.getCategories().isEmpty());
+        }
+    }
+
+    @Test
+    public void stopsWhenCancelled() {
+        ReportEngine.Columns columns = columns(20_000, 3);
+        ReportEngine engine = new ReportEngine(ForkJoinPool.commonPool(), 100);
+        AtomicInteger checks = new AtomicInteger();
+        try {
+            engine.run(columns, ExpenseReport.Granularity.MONTH,
+                    ReportEngine.bounds(ExpenseReport.Granularity.MONTH, FIRST_DAY, LAST_DAY), id -> null,
+                    (start, end, limit) -> Collections.emptyList(), () -> checks.incrementAndGet() > 10);
+            fail("Expected the report to be cancelled");
+        } catch (CancellationException expected) {
+            // Tasks already running finish their chunk, but no more are started
+            assertTrue(checks.get() < 200);
+        }
+    }
+
+    @Test
+    public void nearestRank() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(5, ReportEngine.nearestRank(sorted, 50));
+        assertEquals(9, ReportEngine.nearestRank(sorted, 90));
+        assertEquals(7, ReportEngine.nearestRank(new long[]{7}, 50));
+        assertEquals(7, ReportEngine.nearestRank(new long[]{7}, 90));
+    }
+
+    private static void checkPeriod(String label, ReportEngine.Columns columns, long previousStart, long start,
+                                    long end, ReportPeriod period) {
+        long total = 0;
+        long previousTotal = 0;
+        List<Long> amounts = new ArrayList<>();
+        Map<String, Long> categories = new HashMap<>();
+        for (int i = 0; i < columns.size; i++) {
+            long day = columns.days[i];
+            if (day >= previousStart && day < start) previousTotal += columns.amounts[i];
+            if (day < start || day >= end) continue;
+            total += columns.amounts[i];
+            amounts.add(columns.amounts[i]);
+            String name = columns.categoryIds[i] == 0 ? "" : "c" + columns.categoryIds[i];
+            categories.merge(name, columns.amounts[i], Long::sum);
+        }
+        Collections.sort(amounts);
+
+        assertEquals(label + " start", start, period.getStartDay());
+        assertEquals(label + " end", end, period.getEndDay());
+        assertEquals(label + " count", amounts.size(), period.getCount());
+        assertEquals(label + " total", total, period.getTotal());
+        assertEquals(label + " previous", previousTotal, period.getPreviousTotal());
+        if (!amounts.isEmpty()) {
+            assertEquals(label + " median", (long) amounts.get((amounts.size() + 1) / 2 - 1), period.getMedian());
+            assertEquals(label + " p90", (long) amounts.get((int) Math.ceil(amounts.size() * 0.9) - 1),
+                    period.getPercentile90());
+            assertEquals(label + " notes", start + "-" + end, period.getTopNotes().get(0).getNote());
+        }
+        assertEquals(label + " categories", categories.size(), period.getCategories().size());
+        long previous = Long.MAX_VALUE;
+        for (CategoryTotal category : period.getCategories()) {
+            assertEquals(label + " " + category.getCategory(), (long) categories.get(category.getCategory()),
+                    category.getTotal());
+            assertTrue(label + " order", category.getTotal() <= previous);
+            previous = category.getTotal();
+        }
+    }
+
+    // Rows spread over the test's years, sorted by day, with a gap of a few empty months
+    private static ReportEngine.Columns columns(int size, long seed) {
+        Random random = new Random(seed);
+        long gapStart = day(2021, 4, 1);
+        long gapEnd = day(2021, 8, 1);
+        int[] days = new int[size];
+        for (int i = 0; i < size; i++) {
+            long day;
+            do {
+                day = FIRST_DAY + random.nextInt((int) (LAST_DAY - FIRST_DAY + 1));
+            } while (day >= gapStart && day < gapEnd);
+            days[i] = (int) day;
+        }
+        Arrays.sort(days);
+        long[] amounts = new long[size];
+        int[] categoryIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            amounts[i] = 100 + random.nextInt(500_000);
+            categoryIds[i] = random.nextInt(40);
+        }
+        return new ReportEngine.Columns(days, amounts, categoryIds, size);
+    }
+
+    private static long day(int year, int month, int dayOfMonth) {
+        return LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+}
@@ -22,4 +22,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "DailyExpenseTracker"
 include(":app")
+include(":core")
+include(":benchmark")
  
\ No newline at end of file